@@ -80,7 +80,8 @@ public class DemoData {
      * @param demoManager the InventoryManager used in the demo
      */
     public static void demoDailyCheck(InventoryManager demoManager){
-        demoManager.dalyCheck();
+        int removed = demoManager.dalyCheck();
+        System.out.printf("Daily check: %d products removed in %d ms\n", removed, demoManager.getDailyCheckMillis());
     }
 
     //demo for the shippingManager
@@ -0,0 +1,103 @@
+package src.app;
+
+import src.exceptions.DroneException;
+import src.shipping.deliverymethod.drones.CarrierDrone;
+import src.shipping.deliverymethod.drones.DeliveryDrone;
+import src.shipping.deliverymethod.drones.Drone;
+import src.shipping.deliverymethod.drones.DroneCoordination;
+import src.shipping.ditributionCenter.DistributionCenter;
+import src.shipping.order.Address;
+import src.shipping.order.Continent;
+import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Simulation benchmark of the drone delivery of the main facility
+ * compares the orders delivered per simulated drone-hour with and without grouping the orders by area
+ */
+public class DroneBenchmark {
+
+    private static final int ORDERS = 100_000;
+    private static final int AREAS = 50;
+    private static final int CARRIER_DRONES = 10;
+    private static final int DELIVERY_DRONES = 10;
+    private static final int DELIVERY_DRONE_CAPACITY = 10;
+
+    //simulated time a delivery drone needs to fly to a new area and to drop off a single order
+    private static final double HOURS_PER_TRIP = 0.5;
+    private static final double HOURS_PER_DROP = 0.05;
+
+    public static void main(String[] args) throws DroneException {
+        Drone.setLogging(false);
+
+        run("arrival order", false);
+        run("grouped by area", true);
+
+        Drone.setLogging(true);
+        DroneCoordination.setGrouping(true);
+    }
+
+    /**
+     * Delivers the same set of orders with a new fleet and prints the results
+     * @param name the name of the run
+     * @param grouping if the orders get grouped by area
+     * @throws DroneException if a drone gets overfilled
+     */
+    private static void run(String name, boolean grouping) throws DroneException {
+        DroneCoordination.setGrouping(grouping);
+        List<Order> orders = generateOrders();
+        List<CarrierDrone> carrierDrones = generateFleet();
+
+        long start = System.nanoTime();
+        int deferred = DroneCoordination.completeHandling(carrierDrones, orders);
+        long millis = (System.nanoTime() - start) / 1_000_000;
+
+        int trips = 0;
+        for(CarrierDrone cd : carrierDrones){
+            for(DeliveryDrone dd : cd.getDeliveryDrones()){
+                trips += dd.getTrips();
+            }
+        }
+        int delivered = ORDERS - deferred;
+        double droneHours = trips * HOURS_PER_TRIP + delivered * HOURS_PER_DROP;
+        System.out.printf("%-16s delivered %6d orders on %6d trips, %8.1f drone-hours, %6.2f orders/drone-hour (%d ms)\n",
+                name, delivered, trips, droneHours, delivered / droneHours, millis);
+    }
+
+    /**
+     * Generates EU orders spread randomly over the areas, the same ones on every call
+     * @return the orders generated
+     */
+    private static List<Order> generateOrders(){
+        Random random = new Random(42);
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for(int i = 0; i < ORDERS; i++){
+            int area = random.nextInt(AREAS);
+            orders.add(new Order(i, new Address(Continent.EU, area, "benchmark address " + i), OrderStatus.IN_DELIVERY, false));
+        }
+        return orders;
+    }
+
+    /**
+     * Generates the CarrierDrones with their DeliveryDrones
+     * @return the CarrierDrones generated
+     * @throws DroneException if there are to many DeliveryDrones for a CarrierDrone
+     */
+    private static List<CarrierDrone> generateFleet() throws DroneException {
+        //the CarrierDrones only need a base to get their location
+        DistributionCenter base = new DistributionCenter(Continent.EU);
+        List<CarrierDrone> carrierDrones = new ArrayList<>();
+        for(int i = 0; i < CARRIER_DRONES; i++){
+            CarrierDrone cd = new CarrierDrone(i, base, null);
+            for(int j = 0; j < DELIVERY_DRONES; j++){
+                cd.assignDrones(new DeliveryDrone(j, DELIVERY_DRONE_CAPACITY));
+            }
+            carrierDrones.add(cd);
+        }
+        return carrierDrones;
+    }
+}
@@ -0,0 +1,118 @@
+package src.app;
+
+import src.exceptions.DroneException;
+import src.shipping.deliverymethod.drones.DeliveryDrone;
+import src.shipping.deliverymethod.drones.Drone;
+import src.shipping.deliverymethod.drones.DroneCoordination;
+import src.shipping.order.Address;
+import src.shipping.order.Continent;
+import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+import src.warehouse.item.Package;
+import src.warehouse.item.PackageDimensions;
+import src.warehouse.item.PackageType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of the loading of the DeliveryDrones
+ * compares drones limited to a safe amount of orders with drones packed by weight and volume
+ * and reports the drones dispatched per 10k orders and how full they were
+ */
+public class PackingBenchmark {
+
+    private static final int ORDERS = 10_000;
+    private static final int FLEET = 100;
+    private static final int RUNS = 5;
+
+    //limits of a DeliveryDrone
+    private static final int CAPACITY = 10;
+    private static final double MAX_WEIGHT = 6;
+    private static final double MAX_VOLUME = 40_000;
+
+    //an order contains up to MAX_PACKAGES packages
+    private static final int MAX_PACKAGES = 2;
+    private static final Package[] PACKAGES = {
+            new Package(1, "small", "small package", 0.3, 0.1, new PackageDimensions(20, 15, 10), PackageType.STANDARD),
+            new Package(2, "medium", "medium package", 1.0, 0.2, new PackageDimensions(30, 20, 15), PackageType.STANDARD),
+            new Package(3, "large", "large package", 2.5, 0.4, new PackageDimensions(40, 30, 15), PackageType.STANDARD)
+    };
+
+    public static void main(String[] args) throws DroneException {
+        Drone.setLogging(false);
+
+        //without weight and volume the amount has to be low enough for the largest possible order
+        double largestWeight = PACKAGES[2].getWeight() * MAX_PACKAGES;
+        double largestVolume = PACKAGES[2].getDimensions().getVolume() * MAX_PACKAGES;
+        int safeCapacity = (int) Math.max(1, Math.min(MAX_WEIGHT / largestWeight, MAX_VOLUME / largestVolume));
+
+        //warmup
+        for(int i = 0; i < RUNS; i++){
+            run(null, safeCapacity, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+            run(null, CAPACITY, MAX_WEIGHT, MAX_VOLUME);
+        }
+        run("count only (" + safeCapacity + " per drone)", safeCapacity, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+        run("first-fit decreasing", CAPACITY, MAX_WEIGHT, MAX_VOLUME);
+
+        Drone.setLogging(true);
+    }
+
+    /**
+     * Packs the same orders onto a fleet of DeliveryDrones until all are delivered and prints the results
+     * @param name the name of the run (null for a warmup run)
+     * @param capacity the amount of orders a drone can take
+     * @param maxWeight the weight limit of a drone
+     * @param maxVolume the volume limit of a drone
+     * @throws DroneException if a drone gets overfilled
+     */
+    private static void run(String name, int capacity, double maxWeight, double maxVolume) throws DroneException {
+        List<Order> orders = generateOrders();
+        List<DeliveryDrone> fleet = new ArrayList<>();
+        for(int i = 0; i < FLEET; i++){
+            fleet.add(new DeliveryDrone(i, capacity, maxWeight, maxVolume));
+        }
+
+        int dispatched = 0;
+        double weight = 0;
+        double volume = 0;
+        long start = System.nanoTime();
+        while(!orders.isEmpty()){
+            DroneCoordination.pack(fleet, orders);
+            for(DeliveryDrone dd : fleet){
+                if(!dd.isDocking()){
+                    dispatched++;
+                    weight += dd.getLoadWeight();
+                    volume += dd.getLoadVolume();
+                    dd.deliver();
+                }
+            }
+        }
+        long micros = (System.nanoTime() - start) / 1_000;
+
+        if(name != null){
+            System.out.printf("%-24s %6d drones per 10k orders, weight used %5.1f%%, volume used %5.1f%% (%d us)\n",
+                    name, dispatched * 10_000 / ORDERS,
+                    100 * weight / (dispatched * MAX_WEIGHT), 100 * volume / (dispatched * MAX_VOLUME), micros);
+        }
+    }
+
+    /**
+     * Generates orders with one or more random packages, the same ones on every call
+     * @return the orders generated
+     */
+    private static List<Order> generateOrders(){
+        Random random = new Random(42);
+        List<Order> orders = new ArrayList<>(ORDERS);
+        for(int i = 0; i < ORDERS; i++){
+            Order order = new Order(i, new Address(Continent.EU, random.nextInt(50), "benchmark address " + i), OrderStatus.IN_DELIVERY, false);
+            int packages = 1 + random.nextInt(MAX_PACKAGES);
+            for(int j = 0; j < packages; j++){
+                order.addPackage(PACKAGES[random.nextInt(PACKAGES.length)]);
+            }
+            orders.add(order);
+        }
+        return orders;
+    }
+}
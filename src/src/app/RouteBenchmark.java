@@ -0,0 +1,100 @@
+package src.app;
+
+import src.shipping.deliverymethod.routing.DistanceModel;
+import src.shipping.deliverymethod.routing.GridDistanceModel;
+import src.shipping.deliverymethod.routing.NearestNeighbourPlanner;
+import src.shipping.deliverymethod.routing.RoutePlanner;
+import src.shipping.deliverymethod.routing.TwoOptPlanner;
+import src.shipping.order.Address;
+import src.shipping.order.Continent;
+import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Benchmark of the RoutePlanners for 10 to 100 stops
+ * reports the time needed to plan a route and the simulated distance saved compared to the loading order
+ */
+public class RouteBenchmark {
+
+    private static final int ROUTES = 200;
+    private static final int WARMUP = 50;
+    private static final int AREAS = 100;
+
+    public static void main(String[] args) {
+        DistanceModel model = new GridDistanceModel();
+        RoutePlanner nearest = new NearestNeighbourPlanner(model);
+        RoutePlanner twoOpt = new TwoOptPlanner(nearest, model);
+
+        System.out.printf("%5s %12s %12s %8s %12s %8s %10s %10s\n",
+                "stops", "loading", "nearest", "saved", "2-opt", "saved", "nn us", "2-opt us");
+        for(int stops = 10; stops <= 100; stops += 10){
+            List<List<Order>> routes = generateRoutes(stops);
+
+            //warm up the JIT before measuring
+            for(int i = 0; i < WARMUP; i++){
+                nearest.plan(routes.get(i));
+                twoOpt.plan(routes.get(i));
+            }
+
+            double loading = 0;
+            double nearestLength = 0;
+            double twoOptLength = 0;
+            long nearestTime = 0;
+            long twoOptTime = 0;
+            for(List<Order> route : routes){
+                loading += length(model, route);
+
+                long start = System.nanoTime();
+                List<Order> planned = nearest.plan(route);
+                nearestTime += System.nanoTime() - start;
+                nearestLength += length(model, planned);
+
+                start = System.nanoTime();
+                planned = twoOpt.plan(route);
+                twoOptTime += System.nanoTime() - start;
+                twoOptLength += length(model, planned);
+            }
+            System.out.printf("%5d %12.1f %12.1f %7.1f%% %12.1f %7.1f%% %10.1f %10.1f\n", stops,
+                    loading, nearestLength, 100 * (1 - nearestLength / loading),
+                    twoOptLength, 100 * (1 - twoOptLength / loading),
+                    nearestTime / 1000.0 / ROUTES, twoOptTime / 1000.0 / ROUTES);
+        }
+    }
+
+    /**
+     * Gets the length of the route of a drone delivering orders in the given order
+     * @param model the distance model in use
+     * @param route the orders in question
+     * @return the length of the route
+     */
+    private static double length(DistanceModel model, List<Order> route){
+        List<Address> stops = new ArrayList<>(route.size());
+        for(Order order : route){
+            stops.add(order.getAddress());
+        }
+        return model.routeLength(stops);
+    }
+
+    /**
+     * Generates routes of EU orders spread randomly over the areas, the same ones on every call
+     * @param stops the amount of orders per route
+     * @return the routes generated
+     */
+    private static List<List<Order>> generateRoutes(int stops){
+        Random random = new Random(stops);
+        List<List<Order>> routes = new ArrayList<>(ROUTES);
+        for(int r = 0; r < ROUTES; r++){
+            List<Order> route = new ArrayList<>(stops);
+            for(int i = 0; i < stops; i++){
+                Address address = new Address(Continent.EU, random.nextInt(AREAS), "benchmark address " + i);
+                route.add(new Order(r * stops + i, address, OrderStatus.IN_DELIVERY, false));
+            }
+            routes.add(route);
+        }
+        return routes;
+    }
+}
@@ -0,0 +1,94 @@
+package src.app;
+
+import src.exceptions.DroneException;
+import src.shipping.deliverymethod.drones.CarrierDrone;
+import src.shipping.deliverymethod.drones.DeliveryDrone;
+import src.shipping.deliverymethod.drones.Drone;
+import src.shipping.deliverymethod.routing.GridDistanceModel;
+import src.shipping.deliverymethod.routing.NearestNeighbourPlanner;
+import src.shipping.deliverymethod.simulation.FleetSimulation;
+import src.shipping.deliverymethod.simulation.SimulationReport;
+import src.shipping.ditributionCenter.DistributionCenter;
+import src.shipping.order.Address;
+import src.shipping.order.Continent;
+import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Simulates a day of orders at the main facility for different fleet sizes
+ * and reports throughput, queueing delay and drone utilisation of each fleet
+ */
+public class SimulationBenchmark {
+
+    private static final int ORDERS = 1_000_000;
+    private static final double DAY = 24;
+    private static final int AREAS = 100;
+    private static final int[] CARRIER_DRONES = {200, 400, 600};
+    private static final int DELIVERY_DRONES = 10;
+    private static final int DELIVERY_DRONE_CAPACITY = 10;
+
+    //grid units per hour of a DeliveryDrone
+    private static final double SPEED = 60;
+
+    public static void main(String[] args) throws DroneException {
+        Drone.setLogging(false);
+
+        for(int carrierDrones : CARRIER_DRONES){
+            List<Order> orders = new ArrayList<>(ORDERS);
+            double[] arrivals = generateOrders(orders);
+            GridDistanceModel distances = new GridDistanceModel();
+            FleetSimulation simulation = new FleetSimulation(generateFleet(carrierDrones, distances), distances, SPEED);
+            SimulationReport report = simulation.run(orders, arrivals);
+            System.out.println(report);
+        }
+
+        Drone.setLogging(true);
+    }
+
+    /**
+     * Generates EU orders spread randomly over the areas and the day, the same ones on every call
+     * @param orders the list the orders are added to
+     * @return the arrival time of each order
+     */
+    private static double[] generateOrders(List<Order> orders){
+        Random random = new Random(42);
+        double[] arrivals = new double[ORDERS];
+        for(int i = 0; i < ORDERS; i++){
+            arrivals[i] = random.nextDouble() * DAY;
+        }
+        Arrays.sort(arrivals);
+        for(int i = 0; i < ORDERS; i++){
+            int area = random.nextInt(AREAS);
+            orders.add(new Order(i, new Address(Continent.EU, area, "simulated address " + i), OrderStatus.IN_DELIVERY, false));
+        }
+        return arrivals;
+    }
+
+    /**
+     * Generates the CarrierDrones with their DeliveryDrones
+     * @param amount the amount of CarrierDrones
+     * @param distances the distances the DeliveryDrones plan their routes with
+     * @return the CarrierDrones generated
+     * @throws DroneException if there are to many DeliveryDrones for a CarrierDrone
+     */
+    private static List<CarrierDrone> generateFleet(int amount, GridDistanceModel distances) throws DroneException {
+        //the CarrierDrones only need a base to get their location
+        DistributionCenter base = new DistributionCenter(Continent.EU);
+        List<CarrierDrone> carrierDrones = new ArrayList<>();
+        for(int i = 0; i < amount; i++){
+            CarrierDrone cd = new CarrierDrone(i, base, null);
+            for(int j = 0; j < DELIVERY_DRONES; j++){
+                DeliveryDrone dd = new DeliveryDrone(j, DELIVERY_DRONE_CAPACITY);
+                dd.setRoutePlanner(new NearestNeighbourPlanner(distances));
+                cd.assignDrones(dd);
+            }
+            carrierDrones.add(cd);
+        }
+        return carrierDrones;
+    }
+}
@@ -2,7 +2,7 @@ package src.common;
 
 public abstract class TaskRequirements {
 
-    boolean running = true;
+    volatile boolean running = true;
 
     /**
      * Sets variable used for termination to false
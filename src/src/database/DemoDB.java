@@ -2,12 +2,18 @@ package src.database;
 
 
 import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+import src.shipping.order.OrderStatusListener;
 import src.warehouse.item.Ingredient;
 import src.warehouse.item.Package;
 import src.warehouse.item.Part;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Pseudo Database used for demo of the Subsystem
@@ -20,7 +26,20 @@ public class DemoDB{
     private final Item_Table<Part> partTable;
 
 
-    private final Map<Integer, Order> orderTable;
+    private final Order_Table orderTable;
+
+    //delivered orders get moved here after their retention (can be null, then they stay in the orderTable)
+    private OrderArchive orderArchive;
+
+    //orders that changed to PACKAGED and wait for the ShippingManager,
+    //bounded so a stalled ShippingManager can't make it grow without limit
+    private final BlockingQueue<Order> packagedOrders;
+    private final OrderStatusListener packagedListener;
+    public static final int PACKAGED_CAPACITY = 10000;
+
+    //set if an order didn't fit in the queue, it is still PACKAGED in the orderTable
+    //and gets found there by the ShippingManager
+    private final AtomicBoolean packagedOverflow = new AtomicBoolean();
 
     //singleton
     private static DemoDB instance = null;
@@ -37,7 +56,33 @@ public class DemoDB{
         packageTable = new Item_Table<>();
         partTable = new Item_Table<>();
 
-         orderTable = new HashMap<>();
+         orderTable = new Order_Table();
+         packagedOrders = new LinkedBlockingQueue<>(PACKAGED_CAPACITY);
+         packagedListener = this::orderStatusChanged;
+         orderTable.addListener(packagedListener);
+    }
+
+    /**
+     * Queues an order once it is ready to be shipped
+     * never blocks the thread changing the status, if the queue is full the overflow gets flagged instead
+     * @param order the Order in question
+     * @param previous the status it had before (null if the order is new)
+     */
+    private void orderStatusChanged(Order order, OrderStatus previous){
+        //an already queued order gets looked up by its ID, so only queue new transitions
+        if(order.getStatus() == OrderStatus.PACKAGED && previous != OrderStatus.PACKAGED){
+            if(!packagedOrders.offer(order)){
+                packagedOverflow.set(true);
+            }
+        }
+    }
+
+    /**
+     * Checks if PACKAGED orders didn't fit in the queue since the last call and resets the flag
+     * @return true if the orderTable has to be searched for PACKAGED orders
+     */
+    public boolean takePackagedOverflow(){
+        return packagedOverflow.getAndSet(false);
     }
 
     /**
@@ -79,13 +124,35 @@ public class DemoDB{
     }
 
     public boolean add(Order order){
-        int id = order.getOID();
+        return orderTable.add(order);
+    }
 
-        if(orderTable.containsKey(id)){
-            return false;
+    /**
+     * Moves the orders delivered longer ago than the retention into the orderArchive
+     * @param retention how long delivered orders stay in the orderTable
+     * @return the amount of orders archived
+     * @throws IOException if an order can't be written to the archive
+     */
+    public int archiveDelivered(Duration retention) throws IOException {
+        OrderArchive archive = orderArchive;
+        if(archive == null){
+            return 0;
         }
-        orderTable.put(id, order);
-        return true;
+        return orderTable.archiveDelivered(archive, retention);
+    }
+
+    /**
+     * Finds an order in the orderTable or else in the orderArchive
+     * @param id the ID of the order in question
+     * @return the order or null if there is none with that ID
+     * @throws IOException if the order can't be read from the archive
+     */
+    public Order findOrder(int id) throws IOException {
+        Order order = orderTable.get(id);
+        if(order == null && orderArchive != null){
+            order = orderArchive.get(id);
+        }
+        return order;
     }
 
     //deletes
@@ -102,11 +169,7 @@ public class DemoDB{
     }
 
     public boolean deleteOrder(int id){
-        if(orderTable.containsKey(id)){
-            orderTable.remove(id);
-            return true;
-        }
-        return false;
+        return orderTable.remove(id);
     }
 
     //updates
@@ -123,15 +186,7 @@ public class DemoDB{
     }
 
     public boolean update(Order order){
-        int id = order.getOID();
-
-        if(orderTable.containsKey(id)){
-            orderTable.remove(id);
-            orderTable.put(id, order);
-            return true;
-        }
-
-        return false;
+        return orderTable.update(order);
     }
 
     //getter
@@ -148,14 +203,30 @@ public class DemoDB{
     }
 
     public Map<Integer, Order> getOrderTable() {
+        return orderTable.getAll();
+    }
+
+    public Order_Table getOrders() {
         return orderTable;
     }
 
+    public OrderArchive getOrderArchive() {
+        return orderArchive;
+    }
+
+    public void setOrderArchive(OrderArchive orderArchive) {
+        this.orderArchive = orderArchive;
+    }
+
+    public BlockingQueue<Order> getPackagedOrders() {
+        return packagedOrders;
+    }
+
 
     //prints
     public void printOrders(){
-        for (int i : orderTable.keySet()) {
-            System.out.println(orderTable.get(i));
+        for (Order order : orderTable.getAll().values()) {
+            System.out.println(order);
         }
     }
 
@@ -3,20 +3,74 @@ package src.database;
 
 import src.warehouse.item.Item;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * A Table containing subclasses of Ingredient used for the pseudo Database
+ * The Table can be used by multiple threads at once,
+ * amount and threshold of an entry are atomic counters so no update gets lost
  * @param <T> the entries Table
  */
 public class Item_Table<T extends Item> {
 
     private final Map<Integer, TableEntry> content;
 
+    //index name -> ID, kept in sync by add/update/remove, a duplicate name keeps the entry indexed first
+    private final Map<String, Integer> nameIndex;
+
+    //get notified when an item drops below its threshold
+    private final List<StockListener<? super T>> listeners;
+
     public Item_Table() {
         super();
-        content = new HashMap<>();
+        content = new ConcurrentHashMap<>();
+        nameIndex = new ConcurrentHashMap<>();
+        listeners = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * Registers a listener that gets notified when an item drops below its threshold
+     * @param listener the listener to be added
+     */
+    public void addListener(StockListener<? super T> listener){
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener
+     * @param listener the listener to be removed
+     */
+    public void removeListener(StockListener<? super T> listener){
+        listeners.remove(listener);
+    }
+
+    /**
+     * Notifies all listeners if an entry is below its threshold
+     * @param id the ID of the Item in question
+     */
+    public void checkThreshold(int id){
+        TableEntry entry = content.get(id);
+        if(entry != null){
+            checkThreshold(entry);
+        }
+    }
+
+    /**
+     * Notifies all listeners if an entry is below its threshold
+     * @param entry the entry in question
+     */
+    private void checkThreshold(TableEntry entry){
+        int amount = entry.amount.get();
+        int threshold = entry.threshold.get();
+        if(amount < threshold){
+            for(StockListener<? super T> listener : listeners){
+                listener.belowThreshold(entry.entry, amount, threshold);
+            }
+        }
     }
 
     /**
@@ -27,10 +81,10 @@ public class Item_Table<T extends Item> {
     public boolean add(T newEntry){
         int id = newEntry.getIID();
 
-        if(content.containsKey(id)){
+        if(content.putIfAbsent(id, new TableEntry(newEntry)) != null){
             return false;
         }
-        content.put(id, new TableEntry(newEntry));
+        index(newEntry, id);
         return true;
     }
 
@@ -40,32 +94,59 @@ public class Item_Table<T extends Item> {
      * @return if operation was successful
      */
     public boolean remove(int id){
-        if(content.containsKey(id)){
-            content.remove(id);
+        TableEntry removed = content.remove(id);
+        if(removed != null){
+            unindex(removed.entry, id);
             return true;
         }
         return false;
     }
 
     /**
-     * Updates an entry from the Table
+     * Updates an entry from the Table, amount and threshold are kept
      * @param updatedEntry the entry with updated values
      * @return if operation was successful
      */
     public boolean update(T updatedEntry){
         int id = updatedEntry.getIID();
 
-        if(content.containsKey(id)){
-            TableEntry temp = new TableEntry(updatedEntry);
-            temp.amount = content.get(id).amount;
-            temp.threshold = content.get(id).threshold;
-
-            content.remove(id);
-            content.put(id, temp);
+        return content.computeIfPresent(id, (key, current) -> {
+            unindex(current.entry, id);
+            current.entry = updatedEntry;
+            index(updatedEntry, id);
+            return current;
+        }) != null;
+    }
 
-            return true;
+    /**
+     * Adds the name of an entry to the index, a name already taken by another entry keeps pointing to that one
+     * @param entry the entry in question
+     * @param id the ID of the entry
+     */
+    private void index(T entry, int id){
+        Integer named = nameIndex.putIfAbsent(entry.getName(), id);
+        if(named != null && named != id){
+            System.err.printf("Item_Table: name %s of ID %d is already used by ID %d\n", entry.getName(), id, named);
         }
-        return false;
+    }
+
+    /**
+     * Removes the name of an entry from the index, if it still points to that entry
+     * @param entry the entry that is no longer stored under its name
+     * @param id the ID of the entry
+     */
+    private void unindex(T entry, int id){
+        nameIndex.remove(entry.getName(), id);
+    }
+
+    /**
+     * Finds the ID of an entry by its name
+     * NOTE: renaming has to go through update(), Item.setName() alone does not reach the index
+     * @param name the name of the Item in question
+     * @return the ID of the entry (the one indexed first if several share the name) or null if there is none
+     */
+    public Integer findId(String name){
+        return nameIndex.get(name);
     }
 
     /**
@@ -81,45 +162,99 @@ public class Item_Table<T extends Item> {
      * @param id the ID of the Item in question
      */
     public int getAmount(int id){
-        return content.get(id).amount;
+        return content.get(id).amount.get();
     }
 
     /**
      * Change the value amount of a Table Entry
+     * the listeners get notified if a decrease drops the amount below the threshold
      * @param id the ID of the Item in question
      * @param diff the change to amount
      * @return if operation was successful
      */
     public boolean setAmount(int id, int diff){
-        if(content.containsKey(id)){
-            content.get(id).amount += diff;
+        TableEntry entry = content.get(id);
+        if(entry != null){
+            entry.amount.addAndGet(diff);
+            if(diff < 0){
+                checkThreshold(entry);
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * Reserves a specified amount of an Item, only if that much is available
+     * check and decrease happen as one atomic step,
+     * listeners are not notified until checkThreshold() is called once the items are actually gone
+     * @param id the ID of the Item in question
+     * @param amount the amount to be reserved
+     * @return true if the amount was available and got reserved
+     */
+    public boolean reserve(int id, int amount){
+        TableEntry entry = content.get(id);
+        if(entry == null){
+            return false;
+        }
+        int current;
+        do {
+            current = entry.amount.get();
+            if(current < amount){
+                return false;
+            }
+        } while (!entry.amount.compareAndSet(current, current - amount));
+        return true;
+    }
+
+    /**
+     * Gives back an amount that was reserved before but not used
+     * @param id the ID of the Item in question
+     * @param amount the amount to be released
+     * @return if operation was successful
+     */
+    public boolean release(int id, int amount){
+        return setAmount(id, amount);
+    }
+
     /**
      * Gets the threshold of a specified Item
      * @param id the ID of the Item in question
      */
     public int getThreshold(int id){
-        return content.get(id).threshold;
+        return content.get(id).threshold.get();
     }
 
     /**
      * Change the value threshold of a Table Entry
+     * the listeners get notified if an increase raises the threshold above the amount
      * @param id the ID of the Item in question
      * @param diff the change to threshold
      * @return if operation was successful
      */
     public boolean setThreshold(int id, int diff){
-        if(content.containsKey(id)){
-            content.get(id).threshold += diff;
+        TableEntry entry = content.get(id);
+        if(entry != null){
+            entry.threshold.addAndGet(diff);
+            if(diff > 0){
+                checkThreshold(entry);
+            }
             return true;
         }
         return false;
     }
 
+    /**
+     * Changes the threshold of several Table Entries, same as setThreshold() for each of them
+     * (listeners get notified per entry raised above its amount)
+     * @param diffs the change to threshold by ID of the Item
+     */
+    public void setThresholds(Map<Integer, Integer> diffs){
+        for(Map.Entry<Integer, Integer> i : diffs.entrySet()){
+            setThreshold(i.getKey(), i.getValue());
+        }
+    }
+
     /**
      * Gets a copy the specified Item
      * @param id the ID of the Item in question
@@ -143,8 +278,8 @@ public class Item_Table<T extends Item> {
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
-        for(int i : content.keySet()){
-            sb.append(content.get(i) + "\n");
+        for(TableEntry entry : content.values()){
+            sb.append(entry + "\n");
         }
         return sb.toString();
     }
@@ -154,14 +289,14 @@ public class Item_Table<T extends Item> {
      * Internal class that gets actually used by Item_Table
      */
     private class TableEntry{
-        private T entry;
-        private int amount;
-        private int threshold;
+        private volatile T entry;
+        private final AtomicInteger amount;
+        private final AtomicInteger threshold;
 
         public TableEntry(T entry) {
             this.entry = entry;
-            this.amount = 0;
-            this.threshold = 0;
+            this.amount = new AtomicInteger();
+            this.threshold = new AtomicInteger();
         }
 
         @Override
@@ -0,0 +1,255 @@
+package src.database;
+
+
+import src.shipping.order.Address;
+import src.shipping.order.Continent;
+import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Append only archive for Orders that are no longer needed in the Order_Table
+ * Orders are written to segment files inside a directory, each record is [OID][length][version][Order fields],
+ * the fields are written explicitly, so changes to the Order class don't make older segments unreadable.
+ * a new segment gets started once the current one reaches the segment size.
+ * The position of every Order is kept in an index by OID, which gets rebuilt from the segments when reopened
+ */
+public class OrderArchive implements Closeable {
+
+    public static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+    private static final String SUFFIX = ".seg";
+
+    //format of the Order fields of a record, has to be raised whenever the fields written change
+    //1: status, wormhole, address   2: weight and volume after the wormhole flag
+    private static final byte VERSION = 2;
+
+    private final Path directory;
+    private final long segmentSize;
+
+    //index OID -> position of the record
+    private final Map<Integer, Location> index;
+
+    //the segments in order of their creation, the last one gets appended to
+    private final List<RandomAccessFile> segments;
+
+    /**
+     * Class constructor using the default segment size
+     * @param directory the directory holding the segment files (created if needed)
+     * @throws IOException if the segments can't be opened
+     */
+    public OrderArchive(Path directory) throws IOException {
+        this(directory, DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * Class constructor
+     * @param directory the directory holding the segment files (created if needed)
+     * @param segmentSize the size in bytes after which a new segment gets started
+     * @throws IOException if the segments can't be opened
+     */
+    public OrderArchive(Path directory, long segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.index = new ConcurrentHashMap<>();
+        this.segments = new ArrayList<>();
+
+        Files.createDirectories(directory);
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> existing = files.filter(p -> p.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+            for(Path file : existing){
+                load(new RandomAccessFile(file.toFile(), "rw"));
+            }
+        }
+        if(segments.isEmpty()){
+            startSegment();
+        }
+    }
+
+    /**
+     * Opens an existing segment and adds its records to the index
+     * a record cut off at the end (crash while writing) gets dropped
+     * @param segment the segment in question
+     * @throws IOException if the segment can't be read
+     */
+    private void load(RandomAccessFile segment) throws IOException {
+        int nr = segments.size();
+        segments.add(segment);
+        long position = 0;
+        long length = segment.length();
+        segment.seek(0);
+        while(position + 2 * Integer.BYTES <= length){
+            int oid = segment.readInt();
+            int size = segment.readInt();
+            if(position + 2 * Integer.BYTES + size > length){
+                break;
+            }
+            index.put(oid, new Location(nr, position));
+            position += 2 * Integer.BYTES + size;
+            segment.seek(position);
+        }
+        segment.setLength(position);
+    }
+
+    /**
+     * Starts a new segment to append to
+     * @throws IOException if the segment can't be created
+     */
+    private void startSegment() throws IOException {
+        Path file = directory.resolve(String.format("orders-%06d%s", segments.size(), SUFFIX));
+        segments.add(new RandomAccessFile(file.toFile(), "rw"));
+    }
+
+    /**
+     * Appends an Order to the archive, a later version of an Order replaces the earlier one in the index
+     * @param order the Order to be archived
+     * @throws IOException if the Order can't be written
+     */
+    public synchronized void archive(Order order) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(order, new DataOutputStream(bytes));
+
+        RandomAccessFile segment = segments.get(segments.size() - 1);
+        if(segment.length() > 0 && segment.length() + bytes.size() > segmentSize){
+            startSegment();
+            segment = segments.get(segments.size() - 1);
+        }
+        long position = segment.length();
+        segment.seek(position);
+        ByteArrayOutputStream record = new ByteArrayOutputStream(2 * Integer.BYTES + bytes.size());
+        DataOutputStream out = new DataOutputStream(record);
+        out.writeInt(order.getOID());
+        out.writeInt(bytes.size());
+        bytes.writeTo(out);
+        segment.write(record.toByteArray());
+        index.put(order.getOID(), new Location(segments.size() - 1, position));
+    }
+
+    /**
+     * Reads an archived Order
+     * @param oid the ID of the Order in question
+     * @return the Order or null if it is not archived
+     * @throws IOException if the Order can't be read
+     */
+    public synchronized Order get(int oid) throws IOException {
+        Location location = index.get(oid);
+        if(location == null){
+            return null;
+        }
+        RandomAccessFile segment = segments.get(location.segment());
+        segment.seek(location.position() + Integer.BYTES);
+        byte[] bytes = new byte[segment.readInt()];
+        segment.readFully(bytes);
+        return read(oid, new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    /**
+     * Writes the fields of an Order in the current VERSION of the record format
+     * @param order the Order in question
+     * @param out where the fields are written to
+     * @throws IOException if the fields can't be written
+     */
+    private static void write(Order order, DataOutput out) throws IOException {
+        out.writeByte(VERSION);
+        out.writeUTF(order.getStatus().name());
+        out.writeBoolean(order.isWormholeDelivery());
+        out.writeDouble(order.getWeight());
+        out.writeDouble(order.getVolume());
+        Address address = order.getAddress();
+        out.writeBoolean(address != null);
+        if(address != null){
+            out.writeUTF(address.getRegion() == null ? "" : address.getRegion().name());
+            out.writeInt(address.getArea());
+            out.writeUTF(address.getAddress() == null ? "" : address.getAddress());
+        }
+    }
+
+    /**
+     * Reads the fields of an Order written by write(), records of version 1 are read with no weight and volume
+     * @param oid the ID of the Order in question
+     * @param in where the fields are read from
+     * @return the Order
+     * @throws IOException if the fields can't be read or the record has an unknown version
+     */
+    private static Order read(int oid, DataInput in) throws IOException {
+        byte version = in.readByte();
+        if(version < 1 || version > VERSION){
+            throw new IOException("Unknown record version " + version + " of Order " + oid);
+        }
+        try {
+            OrderStatus status = OrderStatus.valueOf(in.readUTF());
+            boolean wormhole = in.readBoolean();
+            double weight = version >= 2 ? in.readDouble() : 0;
+            double volume = version >= 2 ? in.readDouble() : 0;
+            Address address = null;
+            if(in.readBoolean()){
+                String region = in.readUTF();
+                int area = in.readInt();
+                address = new Address(region.isEmpty() ? null : Continent.valueOf(region), area, in.readUTF());
+            }
+            Order order = new Order(oid, address, status, wormhole);
+            order.setWeight(weight);
+            order.setVolume(volume);
+            return order;
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Corrupt record of Order " + oid, e);
+        }
+    }
+
+    /**
+     * Checks if an Order is archived
+     * @param oid the ID of the Order in question
+     * @return true if the Order is archived
+     */
+    public boolean contains(int oid){
+        return index.containsKey(oid);
+    }
+
+    /**
+     * Gets the amount of archived Orders
+     * @return number of archived Orders
+     */
+    public int size(){
+        return index.size();
+    }
+
+    /**
+     * Gets the amount of segment files
+     * @return number of segments
+     */
+    public synchronized int segments(){
+        return segments.size();
+    }
+
+    /**
+     * Closes all segment files
+     * @throws IOException if a segment can't be closed
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        for(RandomAccessFile segment : segments){
+            segment.close();
+        }
+    }
+
+    /**
+     * Internal record holding the position of an archived Order
+     */
+    private record Location(int segment, long position) {
+    }
+}
@@ -0,0 +1,261 @@
+package src.database;
+
+
+import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+import src.shipping.order.OrderStatusListener;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The Table containing the Orders of the pseudo Database
+ * The Table can be used by multiple threads at once,
+ * the orders are also indexed by their status, the index follows every status change of an order
+ */
+public class Order_Table {
+
+    private final Map<Integer, Order> content;
+
+    //index status -> IDs of the orders in that status
+    private final Map<OrderStatus, Set<Integer>> statusIndex;
+
+    //get notified about status changes of the orders in the Table
+    private final List<OrderStatusListener> listeners;
+
+    //registered on every order inside the Table
+    private final OrderStatusListener indexer;
+
+    //orders in the order they got delivered, used to archive them after their retention
+    private final Queue<Delivered> delivered;
+
+    public Order_Table() {
+        content = new ConcurrentHashMap<>();
+        statusIndex = new EnumMap<>(OrderStatus.class);
+        for(OrderStatus status : OrderStatus.values()){
+            statusIndex.put(status, ConcurrentHashMap.newKeySet());
+        }
+        listeners = new CopyOnWriteArrayList<>();
+        indexer = this::statusChanged;
+        delivered = new ConcurrentLinkedQueue<>();
+    }
+
+    /**
+     * Registers a listener that gets notified about status changes of the orders in the Table,
+     * orders being added count as a change from the status null
+     * @param listener the listener to be added
+     */
+    public void addListener(OrderStatusListener listener){
+        listeners.add(listener);
+    }
+
+    /**
+     * Unregisters a listener
+     * @param listener the listener to be removed
+     */
+    public void removeListener(OrderStatusListener listener){
+        listeners.remove(listener);
+    }
+
+    /**
+     * Moves an order to its current status in the index and notifies the listeners
+     * @param order the Order in question
+     * @param previous the status it had before (can be null)
+     */
+    private void statusChanged(Order order, OrderStatus previous){
+        //the status is read again under the lock, so changes reported out of order still end up in the right set
+        synchronized (order){
+            if(content.get(order.getOID()) != order){
+                return;
+            }
+            if(previous != null){
+                statusIndex.get(previous).remove(order.getOID());
+            }
+            statusIndex.get(order.getStatus()).add(order.getOID());
+            if(order.getStatus() == OrderStatus.DELIVERED && previous != OrderStatus.DELIVERED){
+                delivered.offer(new Delivered(order, System.currentTimeMillis()));
+            }
+        }
+        for(OrderStatusListener listener : listeners){
+            listener.statusChanged(order, previous);
+        }
+    }
+
+    /**
+     * Removes an order from the index
+     * @param order the Order in question
+     */
+    private void unindex(Order order){
+        synchronized (order){
+            order.setListener(null);
+            for(Set<Integer> ids : statusIndex.values()){
+                ids.remove(order.getOID());
+            }
+        }
+    }
+
+    /**
+     * Adds a new Order to the Table
+     * @param order the new Order to be added
+     * @return if operation was successful
+     */
+    public boolean add(Order order){
+        if(content.putIfAbsent(order.getOID(), order) != null){
+            return false;
+        }
+        order.setListener(indexer);
+        statusChanged(order, null);
+        return true;
+    }
+
+    /**
+     * Removes an Order from the Table
+     * @param id the id of the Order to be removed
+     * @return if operation was successful
+     */
+    public boolean remove(int id){
+        Order removed = content.remove(id);
+        if(removed != null){
+            unindex(removed);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Replaces an Order of the Table
+     * the listeners get notified with the status of the replaced Order as previous status
+     * @param order the Order with updated values
+     * @return if operation was successful
+     */
+    public boolean update(Order order){
+        OrderStatus[] previous = new OrderStatus[1];
+        if(content.computeIfPresent(order.getOID(), (key, current) -> {
+            unindex(current);
+            previous[0] = current.getStatus();
+            return order;
+        }) == null){
+            return false;
+        }
+        order.setListener(indexer);
+        statusChanged(order, previous[0]);
+        return true;
+    }
+
+    /**
+     * Changes the status of an Order, only if it is still in the expected status
+     * @param id the ID of the Order in question
+     * @param expected the status the Order is supposed to be in
+     * @param status the new status
+     * @return true if the Order was in the expected status and got changed
+     */
+    public boolean transition(int id, OrderStatus expected, OrderStatus status){
+        Order order = content.get(id);
+        return order != null && order.compareAndSetStatus(expected, status);
+    }
+
+    /**
+     * Moves all Orders delivered longer ago than the retention into the archive
+     * @param archive the archive the Orders get moved to
+     * @param retention how long delivered Orders stay in the Table
+     * @return the amount of Orders archived and removed from the Table
+     * @throws IOException if an Order can't be written, it stays in the Table
+     */
+    public int archiveDelivered(OrderArchive archive, Duration retention) throws IOException {
+        long limit = System.currentTimeMillis() - retention.toMillis();
+        int archived = 0;
+        Delivered next;
+        while((next = delivered.peek()) != null && next.time() <= limit){
+            Order order = next.order();
+            //skip orders that got removed, replaced or changed since they were delivered
+            if(content.get(order.getOID()) == order && order.getStatus() == OrderStatus.DELIVERED){
+                archive.archive(order);
+                if(content.remove(order.getOID(), order)){
+                    unindex(order);
+                    archived++;
+                }
+            }
+            delivered.poll();
+        }
+        return archived;
+    }
+
+    /**
+     * Gets a specified Order
+     * @param id the ID of the Order in question
+     * @return the Order or null if there is none with that ID
+     */
+    public Order get(int id){
+        return content.get(id);
+    }
+
+    /**
+     * Gets all Orders in a given status
+     * @param status the status in question
+     * @return the Orders in that status
+     */
+    public List<Order> getByStatus(OrderStatus status){
+        List<Order> orders = new ArrayList<>();
+        for(int id : statusIndex.get(status)){
+            Order order = content.get(id);
+            if(order != null && order.getStatus() == status){
+                orders.add(order);
+            }
+        }
+        return orders;
+    }
+
+    /**
+     * Gets the amount of Orders in a given status
+     * @param status the status in question
+     * @return number of Orders in that status
+     */
+    public int count(OrderStatus status){
+        return statusIndex.get(status).size();
+    }
+
+    /**
+     * Gets the size of the Table
+     * @return number of Orders contained in table
+     */
+    public int size(){
+        return content.size();
+    }
+
+    /**
+     * Gets the whole content, changes have to go through the Table
+     * @return a read only view of the content
+     */
+    public Map<Integer, Order> getAll(){
+        return Collections.unmodifiableMap(content);
+    }
+
+
+    /**
+     * Prints a visual representation of the Table
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for(Order order : content.values()){
+            sb.append(order + "\n");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Internal record of an Order getting delivered
+     */
+    private record Delivered(Order order, long time) {
+    }
+}
@@ -0,0 +1,19 @@
+package src.database;
+
+import src.warehouse.item.Item;
+
+/**
+ * Gets notified by an Item_Table about changes of the stored amounts
+ * @param <T> the type of Item stored in the Table
+ */
+public interface StockListener<T extends Item> {
+
+    /**
+     * Called when the amount of an item dropped below its threshold
+     * or the threshold got raised above the current amount
+     * @param item the item in question
+     * @param amount the current amount of the item
+     * @param threshold the current threshold of the item
+     */
+    void belowThreshold(T item, int amount, int threshold);
+}
@@ -0,0 +1,11 @@
+package src.shipping;
+
+/**
+ * The ways the ShippingManager can run its DistributionCenters
+ */
+public enum ExecutionMode {
+    //one (virtual if available) thread per DistributionCenter, no limit on the amount of centers
+    THREAD_PER_CENTER,
+    //a fixed amount of platform threads, each DistributionCenter occupies one of them
+    BOUNDED_POOL
+}
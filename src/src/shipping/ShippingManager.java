@@ -2,6 +2,7 @@ package src.shipping;
 
 import src.common.TaskRequirements;
 import src.database.DemoDB;
+import src.database.Order_Table;
 import src.exceptions.DroneException;
 import src.shipping.deliverymethod.drones.CarrierDrone;
 import src.shipping.deliverymethod.drones.DroneCoordination;
@@ -11,24 +12,37 @@ import src.shipping.order.Continent;
 import src.shipping.order.Order;
 import src.shipping.order.OrderStatus;
 
+import java.io.IOException;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 
-import static java.lang.Thread.sleep;
-
 /**
  * The ShippingManager is responsible for taking all the orders that are ready to be shipped
  * and then sends them off to their destination.
  */
 public class ShippingManager extends TaskRequirements implements Runnable {
 
-    //grouped orders
-    private final List<Order> groupedOrders;
+    //grouped orders, double buffered: new orders go into groupedOrders while the flush sends the other buffer
+    private final Object groupLock = new Object();
+    private List<Order> groupedOrders;
+    private List<Order> spareOrders;
+    //orders a flush couldn't deliver, only changed by the scheduler thread
+    private final List<Order> deferredOrders;
+    //the pending time triggered flush (null if there is none), guarded by groupLock
+    private ScheduledFuture<?> flushTimer;
 
     //carrier Drones
     private final List<CarrierDrone> carrierDrones;
@@ -36,29 +50,70 @@ public class ShippingManager extends TaskRequirements implements Runnable {
     //Wormhole-Generator
     private final WormholeGenerator wormholeGenerator;
 
-    //task running once each set amount
+    //runs the flushes of the grouped orders (and the archiving)
     private final ScheduledExecutorService scheduler;
-    private final int INTERVALL = 3000;
+    //flush policy: grouped orders get sent once there are flushSize of them or the first waited maxGroupWait ms
+    private volatile int flushSize = DEFAULT_FLUSH_SIZE;
+    private volatile long maxGroupWait = DEFAULT_GROUP_WAIT;
+    public static final int DEFAULT_FLUSH_SIZE = 100;
+    public static final long DEFAULT_GROUP_WAIT = 3000;
+
+    //max amount of queued orders handled at once and max time waited for new ones
+    private final int BATCH_SIZE = 256;
+    private final int POLL_TIMEOUT = 100;
+
+    //delivered orders older than the retention get moved to the archive of the DemoDB (if it has one)
+    private volatile Duration retention = Duration.ofDays(1);
+    private final int ARCHIVE_INTERVALL = 60000;
 
     //DistributionCenter tasks
     private final List<DistributionCenter> distributionCenters;
-    private final ThreadPoolExecutor DistributionCenterPool;
+    //routing table: the DistributionCenters serving each continent
+    private final Map<Continent, List<DistributionCenter>> routes;
+    private final ExecutorService DistributionCenterPool;
+    private final ExecutionMode executionMode;
+    //max amount of DistributionCenters in BOUNDED_POOL mode
+    private final int poolSize;
+    public static final int DEFAULT_POOL_SIZE = 5;
 
-    //Constructor
+    /**
+     * Constructor, runs each DistributionCenter on its own thread
+     */
     public ShippingManager(){
+        this(ExecutionMode.THREAD_PER_CENTER, DEFAULT_POOL_SIZE);
+    }
+
+    /**
+     * Constructor
+     * @param executionMode how the DistributionCenters are run
+     * @param poolSize the amount of threads (and so DistributionCenters) in BOUNDED_POOL mode
+     */
+    public ShippingManager(ExecutionMode executionMode, int poolSize){
 
         groupedOrders = new ArrayList<>();
+        spareOrders = new ArrayList<>();
+        deferredOrders = Collections.synchronizedList(new ArrayList<>());
         wormholeGenerator = new WormholeGenerator();
         carrierDrones = new ArrayList<>();
         distributionCenters = new ArrayList<>();
+        routes = new EnumMap<>(Continent.class);
+        for(Continent continent : Continent.values()){
+            routes.put(continent, new CopyOnWriteArrayList<>());
+        }
 
-        //schedule grouping Task
+        //flushes get scheduled by the grouped orders themselves
         this.scheduler = Executors.newScheduledThreadPool(1);
-        scheduler.scheduleAtFixedRate(new sendPeriodically(),
-                INTERVALL, INTERVALL, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::archiveDelivered,
+                ARCHIVE_INTERVALL, ARCHIVE_INTERVALL, TimeUnit.MILLISECONDS);
 
         //setup DistributionCenter pool
-        DistributionCenterPool = (ThreadPoolExecutor) Executors.newFixedThreadPool(5);
+        this.executionMode = executionMode;
+        this.poolSize = poolSize;
+        if(executionMode == ExecutionMode.BOUNDED_POOL){
+            DistributionCenterPool = Executors.newFixedThreadPool(poolSize);
+        } else {
+            DistributionCenterPool = threadPerTaskExecutor();
+        }
 
     }
 
@@ -66,10 +121,30 @@ public class ShippingManager extends TaskRequirements implements Runnable {
      * Adds a new DistributionCenter to the system
      * and runs the DistributionCenter tasks
      * @param disC the newly added DistributionCenter
+     * @return false if there is no thread left for it (BOUNDED_POOL mode)
      */
-    public void addDistributionCenter(DistributionCenter disC){
+    public boolean addDistributionCenter(DistributionCenter disC){
+        //each DistributionCenter task runs until termination, so a bounded pool can't take more than its size
+        if(executionMode == ExecutionMode.BOUNDED_POOL && distributionCenters.size() >= poolSize){
+            return false;
+        }
         distributionCenters.add(disC);
+        routes.get(disC.getLocation()).add(disC);
         DistributionCenterPool.execute(disC);
+        return true;
+    }
+
+    /**
+     * Creates an executor starting a new thread for every task
+     * uses virtual threads if the JVM supports them (Java 21+), platform threads otherwise
+     * @return the executor in question
+     */
+    private static ExecutorService threadPerTaskExecutor(){
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool();
+        }
     }
 
 
@@ -121,93 +196,220 @@ public class ShippingManager extends TaskRequirements implements Runnable {
 
 
     /**
-     * Manages all the orders with the status Prepared
+     * Manages all the orders with the status PACKAGED, they get taken from the queue of the DemoDB in batches,
+     * orders that didn't fit in the queue get taken from the order table
      * All orders that require wormhole delivery will be sent of immediately,
      * Orders that go to a DistributionCenter will be sent there and the remaining ones will be grouped to be sent all at once later
      */
     @Override
     public void run() {
+        List<Order> batch = new ArrayList<>(BATCH_SIZE);
+        Map<DistributionCenter, List<Order>> outgoing = new HashMap<>();
         while (this.isRunning()){
-            //needs to sleep
-            try {
-                sleep(10);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
+            //wait for orders with status PACKAGED, the DemoDB queues them on their status change
+            BlockingQueue<Order> packagedOrders = DemoDB.getInstance().getPackagedOrders();
+            Order_Table orderTable = DemoDB.getInstance().getOrders();
+            //orders that didn't fit in the queue are looked up in the order table
+            if(DemoDB.getInstance().takePackagedOverflow()){
+                batch.addAll(orderTable.getByStatus(OrderStatus.PACKAGED));
             }
+            if(batch.isEmpty()){
+                try {
+                    Order first = packagedOrders.poll(POLL_TIMEOUT, TimeUnit.MILLISECONDS);
+                    if(first == null){
+                        continue;
+                    }
+                    batch.add(first);
+                } catch (InterruptedException e) {
+                    e.printStackTrace();
+                    continue;
+                }
+            }
+            packagedOrders.drainTo(batch, BATCH_SIZE - 1);
 
-            //check order DB orders with status PREPARED
-            DemoDB db = DemoDB.getInstance();
-            Map<Integer, Order> orderTable = db.getOrderTable();
-            List<Integer> keys = new ArrayList<>();
-            for(int i : orderTable.keySet()){
-                if(orderTable.get(i).getStatus().equals(OrderStatus.PACKAGED)){
-                    keys.add(i);
-                    //change Status of selected orders to IN_DELIVERY
-                    orderTable.get(i).setStatus(OrderStatus.IN_DELIVERY);
+            for(Order queued : batch){
+                //change Status of selected orders to IN_DELIVERY,
+                //skips orders that got deleted or changed since they were queued
+                if(orderTable.transition(queued.getOID(), OrderStatus.PACKAGED, OrderStatus.IN_DELIVERY)){
+                    ship(orderTable.get(queued.getOID()), outgoing);
                 }
             }
+            batch.clear();
 
-            //send wormhole orders
-            for(int key : keys){
-                Order order = orderTable.get(key);
-                if(order.isWormholeDelivery()){
-                    //send all wormhole deliveries instantly
-                    try {
-                        wormholeGenerator.sendOrder(order);
-                    } catch (InterruptedException e) {
-                        e.printStackTrace();
-                    }
-                } else {
-                    Continent location = order.getAddress().getRegion();
-                    if(location.equals(Continent.EU)){
-                        groupedOrders.add(order);
-                    } else { //send to DistributionCenters
-                        for(DistributionCenter disC : distributionCenters){
-                            if(location.equals(disC.getLocation())){
-                                List<Order> disCOrders = new ArrayList<>();
-                                disCOrders.add(order);
-                                disC.receiveOrders(disCOrders);
-                                break;
-                            }
-                        }
+            //hand over the orders of this batch, one call per DistributionCenter
+            for(Map.Entry<DistributionCenter, List<Order>> i : outgoing.entrySet()){
+                i.getKey().receiveOrders(i.getValue());
+            }
+            outgoing.clear();
+        }
+    }
 
-                    }
+    /**
+     * Sends an order on its way
+     * wormhole orders will be sent of immediately, orders that go to a DistributionCenter will be collected
+     * and the remaining ones will be grouped to be sent all at once later
+     * @param order the order in question
+     * @param outgoing the orders collected for each DistributionCenter
+     */
+    private void ship(Order order, Map<DistributionCenter, List<Order>> outgoing){
+        if(order.isWormholeDelivery()){
+            //send all wormhole deliveries instantly
+            try {
+                wormholeGenerator.sendOrder(order);
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+        } else {
+            Continent location = order.getAddress().getRegion();
+            if(location.equals(Continent.EU)){
+                group(order);
+            } else { //send to DistributionCenters
+                DistributionCenter disC = route(location, outgoing);
+                if(disC != null){
+                    outgoing.computeIfAbsent(disC, k -> new ArrayList<>()).add(order);
                 }
             }
+        }
+    }
 
+    /**
+     * Selects the DistributionCenter with the least orders to handle serving a continent
+     * @param location the continent in question
+     * @param outgoing the orders already collected for each DistributionCenter
+     * @return the DistributionCenter or null if no one serves the continent
+     */
+    private DistributionCenter route(Continent location, Map<DistributionCenter, List<Order>> outgoing){
+        DistributionCenter best = null;
+        int bestLoad = Integer.MAX_VALUE;
+        for(DistributionCenter disC : routes.get(location)){
+            List<Order> collected = outgoing.get(disC);
+            int load = disC.getLoad() + (collected == null ? 0 : collected.size());
+            if(load < bestLoad){
+                best = disC;
+                bestLoad = load;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Moves the delivered orders older than the retention out of the order table into the archive
+     * runs periodically, "can be called by the MAIN program" but only for demo purposes
+     * @return the amount of orders archived
+     */
+    public int archiveDelivered(){
+        try {
+            return DemoDB.getInstance().archiveDelivered(retention);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
         }
     }
 
     /**
-     * private class that periodically loads all the grouped order onto the CarrierDrones
-     *
+     * Sets how long delivered orders stay in the order table before they get archived
+     * @param retention the time in question
      */
-    private class sendPeriodically implements Runnable{
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
 
-        public sendPeriodically() {
+    /**
+     * Adds an order to the grouped orders and schedules the flush according to the flush policy
+     * @param order the order in question
+     */
+    private void group(Order order){
+        synchronized (groupLock){
+            groupedOrders.add(order);
+            if(groupedOrders.size() >= flushSize){
+                scheduleFlush(0);
+            } else if(flushTimer == null){
+                scheduleFlush(maxGroupWait);
+            }
         }
+    }
 
-        /**
-         * periodically loads all the grouped order onto the CarrierDrones
-         */
-        @Override
-        public void run() {
+    /**
+     * Schedules a flush, replaces the pending one if the new one is earlier
+     * needs to hold the groupLock
+     * @param delay the delay in ms
+     */
+    private void scheduleFlush(long delay){
+        if(flushTimer != null){
+            if(flushTimer.getDelay(TimeUnit.MILLISECONDS) <= delay){
+                return;
+            }
+            flushTimer.cancel(false);
+        }
+        try {
+            flushTimer = scheduler.schedule(this::flush, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            //terminated, nothing gets sent anymore
+            flushTimer = null;
+        }
+    }
 
-            //send remaining grouped orders
-            try {
-                DroneCoordination.completeHandling(carrierDrones, groupedOrders);
-            } catch (DroneException e) {
-                e.printStackTrace();
+    /**
+     * Loads the grouped orders onto the CarrierDrones
+     * swaps the buffers first, so new orders can be grouped in the meantime,
+     * orders not delivered get another try after maxGroupWait
+     */
+    private void flush(){
+        List<Order> full;
+        synchronized (groupLock){
+            flushTimer = null;
+            full = groupedOrders;
+            groupedOrders = spareOrders;
+        }
+        deferredOrders.addAll(full);
+        full.clear();
+        spareOrders = full;
+
+        //send grouped orders, the ones not delivered stay for the next flush
+        int rejected = DroneCoordination.rejectOversized(carrierDrones, deferredOrders).size();
+        if(rejected > 0){
+            System.out.println("Main Facility: " + rejected + " orders rejected, too large for the drones");
+        }
+        try {
+            int deferred = DroneCoordination.completeHandling(carrierDrones, deferredOrders);
+            if(deferred > 0){
+                System.out.println("Main Facility: " + deferred + " orders deferred to the next run");
             }
+        } catch (DroneException e) {
+            e.printStackTrace();
+        }
 
-            //clear Grouped orders
-            groupedOrders.clear();
+        if(!deferredOrders.isEmpty()){
+            synchronized (groupLock){
+                scheduleFlush(maxGroupWait);
+            }
         }
     }
 
+    /**
+     * Sets the flush policy of the grouped orders
+     * @param flushSize the amount of grouped orders that get sent right away
+     * @param maxGroupWait the max time in ms a grouped order waits to be sent
+     */
+    public void setFlushPolicy(int flushSize, long maxGroupWait){
+        this.flushSize = flushSize;
+        this.maxGroupWait = maxGroupWait;
+    }
+
     //getters
+    /**
+     * Gets the grouped orders that wait to be sent
+     * @return a snapshot of the deferred and the grouped orders
+     */
     public List<Order> getGroupedOrders() {
-        return groupedOrders;
+        List<Order> snapshot;
+        synchronized (deferredOrders){
+            snapshot = new ArrayList<>(deferredOrders);
+        }
+        synchronized (groupLock){
+            snapshot.addAll(groupedOrders);
+        }
+        return snapshot;
     }
 
     public List<CarrierDrone> getCarrierDrones() {
@@ -223,6 +425,10 @@ public class ShippingManager extends TaskRequirements implements Runnable {
     }
 
 
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
     public boolean distributionCenterPoolShutdown(){
         return DistributionCenterPool.isShutdown();
     }
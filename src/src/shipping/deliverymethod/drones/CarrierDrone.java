@@ -4,6 +4,7 @@ import src.exceptions.DroneException;
 import src.shipping.ShippingManager;
 import src.shipping.ditributionCenter.DistributionCenter;
 import src.shipping.order.Continent;
+import src.shipping.order.Order;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -18,7 +19,11 @@ public class CarrierDrone extends Drone{
     private ShippingManager mainHub;
 
     public CarrierDrone(int id, DistributionCenter dc, ShippingManager sm) {
-        super(id, CAPACITY);
+        this(id, dc, sm, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    public CarrierDrone(int id, DistributionCenter dc, ShippingManager sm, double maxWeight, double maxVolume) {
+        super(id, CAPACITY, maxWeight, maxVolume);
         deliveryDrones = new ArrayList<>();
         if(dc == null && sm != null){
             identifier = "Main Facility CarrierDrone: " + id;
@@ -49,19 +54,10 @@ public class CarrierDrone extends Drone{
     @Override
     public void deliver() throws DroneException {
         if(!orders.isEmpty()){
-            for(DeliveryDrone dd : deliveryDrones){
-                if(dd.isDocking){
-                    while(!orders.isEmpty() && dd.orders.size() < dd.capacity){
-                        dd.load(orders.get(0));
-                        orders.remove(0);
-                    }
-                }
-            }
-        }
-
-        //must be done separate from if(!orders.isEmpty()) because it could change in the while loop
-        if(orders.isEmpty()){
-            isDocking = true;
+            //the orders the DeliveryDrones can't take get loaded back, so it stays docking if none are left
+            List<Order> waiting = unload();
+            DroneCoordination.pack(deliveryDrones, waiting);
+            load(waiting);
         }
 
     }
@@ -1,16 +1,31 @@
 package src.shipping.deliverymethod.drones;
 
+import src.shipping.deliverymethod.routing.RoutePlanner;
+import src.shipping.order.Address;
 import src.shipping.order.Order;
 import src.shipping.order.OrderStatus;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class DeliveryDrone extends Drone{
 
     //the carrier drone to which it docks
     protected CarrierDrone dock;
 
+    //amount of trips to a new area, orders in the same area as the previous one are delivered on the same trip
+    private int trips;
+
+    //reorders the loaded orders before each delivery (null keeps the loading order)
+    private RoutePlanner routePlanner;
+
     //constructor
     public DeliveryDrone(int id, int capacity) {
-        super(id, capacity);
+        this(id, capacity, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    public DeliveryDrone(int id, int capacity, double maxWeight, double maxVolume) {
+        super(id, capacity, maxWeight, maxVolume);
         this.identifier = "NOT ASSIGNED " + this.id;
     }
 
@@ -19,17 +34,50 @@ public class DeliveryDrone extends Drone{
      */
     @Override
     public void deliver() {
-        while (!orders.isEmpty()){
-            Order next = orders.get(0);
+        for(Order order : flyRoute()){
+            order.setStatus(OrderStatus.DELIVERED);
+        }
+    }
+
+    /**
+     * Flies to the addresses of all loaded orders and back to the CarrierDrone, without changing their status
+     * @return the orders dropped off, in the order they were visited
+     */
+    public List<Order> flyRoute() {
+        if(routePlanner != null && orders.size() > 1){
+            List<Order> route = routePlanner.plan(new ArrayList<>(orders));
+            orders.clear();
+            orders.addAll(route);
+        }
+        List<Order> dropped = new ArrayList<>(orders.size());
+        Order next;
+        Address last = null;
+        while ((next = poll()) != null){
+            if(last == null || !last.sameArea(next.getAddress())){
+                trips++;
+            }
+            last = next.getAddress();
             goTo(next.getAddress());
-            next.setStatus(OrderStatus.DELIVERED);
-            orders.remove(0);
+            dropped.add(next);
         }
         isDocking = true;
+        return dropped;
     }
 
     //getter
     public CarrierDrone getCarrierDrone(){
         return dock;
     }
+
+    public int getTrips() {
+        return trips;
+    }
+
+    public RoutePlanner getRoutePlanner() {
+        return routePlanner;
+    }
+
+    public void setRoutePlanner(RoutePlanner routePlanner) {
+        this.routePlanner = routePlanner;
+    }
 }
@@ -5,7 +5,9 @@ import src.shipping.order.Address;
 import src.shipping.order.Continent;
 import src.shipping.order.Order;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
 
 /**
@@ -22,17 +24,32 @@ public abstract class Drone {
 
     //load-capacity of drone
     protected final int capacity;
-    //list of orders carried by the drone
-    protected final List<Order> orders;
+    //max total weight and volume of the orders carried (infinite if only the amount of orders counts)
+    protected final double maxWeight;
+    protected final double maxVolume;
+    //orders carried by the drone, taken from the front in the order they were loaded
+    protected final Deque<Order> orders;
+    //total weight and volume of the orders carried, kept up to date by load(), poll() and unload()
+    protected double loadWeight;
+    protected double loadVolume;
     //current position of drone
     protected Continent location;
     //if drone is currently docked/available
-    protected boolean isDocking;
+    protected volatile boolean isDocking;
+
+    //prints the movements of all drones (turned off for benchmarks)
+    private static volatile boolean logging = true;
 
     //constructor
     public Drone(int id, int capacity){
+        this(id, capacity, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    public Drone(int id, int capacity, double maxWeight, double maxVolume){
         this.capacity = capacity;
-        this.orders = new ArrayList<>();
+        this.maxWeight = maxWeight;
+        this.maxVolume = maxVolume;
+        this.orders = new ArrayDeque<>();
         this.isDocking = true;
         this.id = id;
     }
@@ -43,18 +60,39 @@ public abstract class Drone {
      * @param address the specified address
      */
     public void goTo(Address address){
-        System.out.println(identifier + " is going to -> " + address + ".");
+        if(logging){
+            System.out.println(identifier + " is going to -> " + address + ".");
+        }
+    }
+
+    /**
+     * Turns the printing of the drone movements on or off
+     * @param logging true to print the movements
+     */
+    public static void setLogging(boolean logging){
+        Drone.logging = logging;
     }
 
     /**
      * Load the drone with all the orders it has to deliver
-     * @param orders a list of orders
+     * @param orders a list of orders (a subList can be used to load a slice of a larger list)
      */
     public void load(List<Order> orders) throws DroneException {
-        if(orders.size() + this.orders.size() > capacity){
+        if(orders.isEmpty()){
+            return;
+        }
+        double weight = loadWeight;
+        double volume = loadVolume;
+        for(Order order : orders){
+            weight += order.getWeight();
+            volume += order.getVolume();
+        }
+        if(orders.size() + this.orders.size() > capacity || weight > maxWeight || volume > maxVolume){
             throw new DroneException("Trying to overfill a drone: " + identifier);
         }
         this.orders.addAll(orders);
+        loadWeight = weight;
+        loadVolume = volume;
         isDocking = false;
     }
 
@@ -63,13 +101,73 @@ public abstract class Drone {
      * @param order a single order
      */
     public void load(Order order) throws DroneException {
-        if(orders.size() + 1 > capacity){
+        if(!fits(order)){
             throw new DroneException("Trying to overfill a drone: " + identifier);
         }
         orders.add(order);
+        loadWeight += order.getWeight();
+        loadVolume += order.getVolume();
         isDocking = false;
     }
 
+    /**
+     * Checks if an order can still be loaded without exceeding the amount, weight or volume limit
+     * @param order the order in question
+     * @return true if the order fits
+     */
+    public boolean fits(Order order){
+        return orders.size() + 1 <= capacity
+                && loadWeight + order.getWeight() <= maxWeight
+                && loadVolume + order.getVolume() <= maxVolume;
+    }
+
+    /**
+     * Takes the next order off the drone
+     * @return the order or null if the drone is empty
+     */
+    protected Order poll(){
+        Order order = orders.poll();
+        if(order != null){
+            loadWeight -= order.getWeight();
+            loadVolume -= order.getVolume();
+        }
+        if(orders.isEmpty()){
+            //no rounding errors carried over to the next load
+            loadWeight = 0;
+            loadVolume = 0;
+        }
+        return order;
+    }
+
+    /**
+     * Takes all orders off the drone, so it is docking again
+     * @return the orders in the order they were loaded
+     */
+    public List<Order> unload(){
+        List<Order> unloaded = new ArrayList<>(orders);
+        orders.clear();
+        loadWeight = 0;
+        loadVolume = 0;
+        isDocking = true;
+        return unloaded;
+    }
+
+    /**
+     * Gets the total weight of the orders currently carried
+     * @return the sum of the weights
+     */
+    public double getLoadWeight(){
+        return loadWeight;
+    }
+
+    /**
+     * Gets the total volume of the orders currently carried
+     * @return the sum of the volumes
+     */
+    public double getLoadVolume(){
+        return loadVolume;
+    }
+
     /**
      * Defines the next steps a drone has to take:
      * CarrierDrone: distributes Orders among DeliveryDrones
@@ -78,7 +176,8 @@ public abstract class Drone {
     public abstract void deliver() throws DroneException;
 
     //getter
-    public List<Order> getOrders() {
+    //NOTE: orders have to be added and taken through the drone, so the weight and volume stay correct
+    public Deque<Order> getOrders() {
         return orders;
     }
 
@@ -94,6 +193,14 @@ public abstract class Drone {
         return capacity;
     }
 
+    public double getMaxWeight() {
+        return maxWeight;
+    }
+
+    public double getMaxVolume() {
+        return maxVolume;
+    }
+
     public Continent getLocation() {
         return location;
     }
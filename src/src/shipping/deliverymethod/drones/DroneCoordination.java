@@ -2,8 +2,22 @@ package src.shipping.deliverymethod.drones;
 
 import src.exceptions.DroneException;
 import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Coordinate the shipping of the orders via the drone system
@@ -12,47 +26,318 @@ import java.util.List;
  */
 public class DroneCoordination {
 
+    //max amount of loading cycles of a single completeHandling call
+    public static final int MAX_CYCLES = 1000;
+
+    //order of the orders when grouped: continent, area and arrival inside the same area
+    public static final Comparator<Order> BY_AREA = Comparator.comparing((Order o) -> o.getAddress().getRegion(),
+                    Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparingInt(o -> o.getAddress().getArea());
+
+    //orders get grouped by area before loading, so each drone visits as few areas as possible
+    private static volatile boolean grouping = true;
+
+    //size of each dispatch pool, the drones mostly wait for their flights so there are more threads than cores
+    public static final int DISPATCH_THREADS = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+
+    //run the flights of the CarrierDrones and the DeliveryDrones, separate pools so a CarrierDrone waiting for
+    //its DeliveryDrones never blocks them, idle threads time out so the pools need no shutdown
+    private static final ExecutorService CARRIER_DISPATCH = dispatchPool("carrier-dispatch");
+    private static final ExecutorService DELIVERY_DISPATCH = dispatchPool("delivery-dispatch");
+
+
+    /**
+     * Creates a bounded pool of daemon threads for the flights of the drones
+     * @param name the name of the threads
+     * @return the pool created
+     */
+    private static ExecutorService dispatchPool(String name){
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(DISPATCH_THREADS, DISPATCH_THREADS, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
 
     /**
      * Coordinates the various CarrierDrones of the different facilities with their respective orders
-     * Goes over each CarrierDrone and tries to load it as long as there are orders to load onto it
+     * Packs the orders onto the docking CarrierDrones by amount, weight and volume
      * @param carrierDrones the CarrierDrones of the facility calling this method
      * @param orders the pending orders of the facility calling this method
      */
     public static void carrierDronesHandling(List<CarrierDrone> carrierDrones, List<Order> orders) throws DroneException {
-        if(!orders.isEmpty()){
-            for(CarrierDrone cd : carrierDrones){
-                if(cd.isDocking){
-                    while(!orders.isEmpty() && cd.orders.size() < cd.capacity){
-                        cd.load(orders.get(0));
-                        orders.remove(0);
-                    }
+        pack(carrierDrones, orders);
+    }
+
+    /**
+     * Packs orders onto the docking drones first-fit decreasing:
+     * the largest orders (by their share of the weight or volume limit) go first,
+     * each one onto the first drone it still fits on, orders of the same size keep their order.
+     * Only the front of the list is packed, as many orders as the drones have free places,
+     * so orders grouped by area stay together. Orders that don't fit stay in the list in their order
+     * @param drones the drones to be loaded, the ones not docking are skipped
+     * @param orders the orders in question, the loaded ones get removed
+     * @return the amount of orders loaded
+     */
+    public static int pack(List<? extends Drone> drones, List<Order> orders) throws DroneException {
+        if(orders.isEmpty()){
+            return 0;
+        }
+        List<Drone> docking = new ArrayList<>();
+        int places = 0;
+        double maxWeight = 0;
+        double maxVolume = 0;
+        for(Drone drone : drones){
+            if(drone.isDocking){
+                docking.add(drone);
+                places += drone.capacity - drone.orders.size();
+                maxWeight = Math.max(maxWeight, drone.maxWeight);
+                maxVolume = Math.max(maxVolume, drone.maxVolume);
+            }
+        }
+        int window = Math.min(places, orders.size());
+        if(window <= 0){
+            return 0;
+        }
+
+        //sorting is stable, so without weights and volumes the orders are packed in their order
+        List<Order> sorted = new ArrayList<>(orders.subList(0, window));
+        double weightScale = maxWeight;
+        double volumeScale = maxVolume;
+        sorted.sort(Comparator.comparingDouble((Order o) -> Math.max(o.getWeight() / weightScale, o.getVolume() / volumeScale)).reversed());
+
+        //what is left on each drone, the batches are summed up in the same order load() does
+        int[] freePlaces = new int[docking.size()];
+        double[] weights = new double[docking.size()];
+        double[] volumes = new double[docking.size()];
+        List<List<Order>> batches = new ArrayList<>();
+        for(int i = 0; i < docking.size(); i++){
+            Drone drone = docking.get(i);
+            freePlaces[i] = drone.capacity - drone.orders.size();
+            weights[i] = drone.getLoadWeight();
+            volumes[i] = drone.getLoadVolume();
+            batches.add(new ArrayList<>());
+        }
+        Set<Order> packed = Collections.newSetFromMap(new IdentityHashMap<>());
+        for(Order order : sorted){
+            for(int i = 0; i < docking.size(); i++){
+                Drone drone = docking.get(i);
+                if(freePlaces[i] > 0
+                        && weights[i] + order.getWeight() <= drone.maxWeight
+                        && volumes[i] + order.getVolume() <= drone.maxVolume){
+                    freePlaces[i]--;
+                    weights[i] += order.getWeight();
+                    volumes[i] += order.getVolume();
+                    batches.get(i).add(order);
+                    packed.add(order);
+                    break;
                 }
             }
         }
+        for(int i = 0; i < docking.size(); i++){
+            docking.get(i).load(batches.get(i));
+        }
+
+        //the loaded orders get removed from the front all at once, the rest keeps its place
+        List<Order> front = orders.subList(0, window);
+        front.removeIf(packed::contains);
+        return packed.size();
+    }
+
+    /**
+     * Takes the orders out of the list that are too heavy or too large for every CarrierDrone
+     * together with the largest of its DeliveryDrones, they would otherwise be deferred forever.
+     * The rejected orders are marked UNDELIVERABLE. Only CarrierDrones with DeliveryDrones count,
+     * without any of them nothing gets rejected (the fleet is missing, not the order too large)
+     * @param carrierDrones the CarrierDrones of the facility calling this method
+     * @param orders the orders in question, the rejected ones get removed
+     * @return the orders rejected
+     */
+    public static List<Order> rejectOversized(List<CarrierDrone> carrierDrones, List<Order> orders){
+        //largest weight and volume each CarrierDrone can get delivered
+        List<double[]> limits = new ArrayList<>();
+        for(CarrierDrone cd : carrierDrones){
+            double weight = 0;
+            double volume = 0;
+            for(DeliveryDrone dd : cd.getDeliveryDrones()){
+                if(dd.capacity > 0){
+                    weight = Math.max(weight, dd.maxWeight);
+                    volume = Math.max(volume, dd.maxVolume);
+                }
+            }
+            if(cd.capacity > 0 && !cd.getDeliveryDrones().isEmpty()){
+                limits.add(new double[]{Math.min(weight, cd.maxWeight), Math.min(volume, cd.maxVolume)});
+            }
+        }
+        List<Order> rejected = new ArrayList<>();
+        if(limits.isEmpty()){
+            return rejected;
+        }
+        orders.removeIf(order -> {
+            for(double[] limit : limits){
+                if(order.getWeight() <= limit[0] && order.getVolume() <= limit[1]){
+                    return false;
+                }
+            }
+            rejected.add(order);
+            return true;
+        });
+        for(Order order : rejected){
+            order.setStatus(OrderStatus.UNDELIVERABLE);
+        }
+        return rejected;
+    }
+
+    /**
+     * Groups the orders by continent and area, so the slices loaded onto the drones cover as few areas as possible
+     * the orders of the same area keep their order
+     * @param orders the orders in question
+     */
+    public static void groupByArea(List<Order> orders){
+        orders.sort(BY_AREA);
+    }
+
+    /**
+     * Turns the grouping of the orders by area before loading on or off
+     * @param grouping true to group the orders
+     */
+    public static void setGrouping(boolean grouping){
+        DroneCoordination.grouping = grouping;
+    }
+
+    public static boolean isGrouping(){
+        return grouping;
     }
 
     /**
      * Coordinates all the various Drones types of the different facilities with their respective orders
-     * Goes over each CarrierDrone completes the loading process and then maks all DeliveryDrones finish the delivery
+     * Goes over each CarrierDrone completes the loading process and then maks all DeliveryDrones finish the delivery,
+     * the CarrierDrones and their DeliveryDrones fly in parallel.
+     * Runs at most MAX_CYCLES loading cycles and stops early once a cycle gets no order delivered
+     * (no CarrierDrone docking or no DeliveryDrones), orders not delivered stay in the list for the next call,
+     * orders too large for every drone are never delivered, callers reject them first with rejectOversized()
      * @param carrierDrones the CarrierDrones of the facility calling this method
      * @param orders the pending orders of the facility calling this method
+     * @return the amount of orders deferred to the next call
      */
-    public static void completeHandling(List<CarrierDrone> carrierDrones, List<Order> orders) throws DroneException {
-        while(!orders.isEmpty()){
+    public static int completeHandling(List<CarrierDrone> carrierDrones, List<Order> orders) throws DroneException {
+        if(grouping){
+            groupByArea(orders);
+        }
+        //CarrierDrones that couldn't get rid of their orders are left out for the rest of the call
+        List<CarrierDrone> available = new ArrayList<>(carrierDrones);
+        int cycles = 0;
+        while(!orders.isEmpty() && cycles < MAX_CYCLES){
+            cycles++;
+            int before = orders.size();
+
             //fills the carrier drones
-            carrierDronesHandling(carrierDrones,orders);
-            for(CarrierDrone cd : carrierDrones){
-                //run until CarrierDrone are idling
-                while (!cd.isDocking){
-                    //makes the CarrierDrones distribute among the DeliveryDrones
-                    cd.deliver();
-                    for(DeliveryDrone dd : cd.getDeliveryDrones()){
-                        //makes all the DeliveryDrones finish their delivery
-                        dd.deliver();
+            carrierDronesHandling(available,orders);
+            int loaded = before - orders.size();
+            if(loaded == 0){
+                //no CarrierDrone could take any orders
+                break;
+            }
+            //all busy CarrierDrones fly at the same time
+            Map<CarrierDrone, CompletableFuture<List<Order>>> flights = new LinkedHashMap<>();
+            for(CarrierDrone cd : available){
+                if(!cd.isDocking){
+                    flights.put(cd, CompletableFuture.supplyAsync(() -> fly(cd), CARRIER_DISPATCH));
+                }
+            }
+            //every flight gets waited for, so a failing one doesn't lose the orders the others gave back
+            CompletableFuture.allOf(flights.values().toArray(new CompletableFuture<?>[0])).handle((r, e) -> null).join();
+            List<Order> returned = new ArrayList<>();
+            DroneException failure = null;
+            for(Map.Entry<CarrierDrone, CompletableFuture<List<Order>>> flight : flights.entrySet()){
+                List<Order> unloaded;
+                try {
+                    unloaded = await(flight.getValue());
+                } catch (DroneException e) {
+                    if(failure == null){
+                        failure = e;
                     }
+                    continue;
                 }
+                if(!unloaded.isEmpty()){
+                    //the CarrierDrone couldn't get rid of its orders, they go back to the list
+                    returned.addAll(unloaded);
+                    available.remove(flight.getKey());
+                }
+            }
+            //returned orders go back to the front, in the order they were loaded
+            orders.addAll(0, returned);
+            if(failure != null){
+                throw failure;
+            }
+            if(returned.size() == loaded){
+                //every loaded order came back, nothing got delivered
+                break;
+            }
+        }
+        return orders.size();
+    }
+
+    /**
+     * Lets a CarrierDrone distribute its orders until it is idling,
+     * its DeliveryDrones deliver in parallel and the CarrierDrone waits for all of them to come back each round
+     * @param cd the CarrierDrone in question
+     * @return the orders the CarrierDrone couldn't get rid of (no DeliveryDrones), it is unloaded then
+     */
+    private static List<Order> fly(CarrierDrone cd){
+        while (!cd.isDocking){
+            int carried = cd.orders.size();
+            //makes the CarrierDrones distribute among the DeliveryDrones
+            try {
+                cd.deliver();
+            } catch (DroneException e) {
+                throw new CompletionException(e);
+            }
+            //makes all the DeliveryDrones fly their routes, the orders of each one get marked as delivered once it is back
+            List<CompletableFuture<Void>> deliveries = new ArrayList<>();
+            for(DeliveryDrone dd : cd.getDeliveryDrones()){
+                if(!dd.isDocking){
+                    deliveries.add(CompletableFuture.supplyAsync(dd::flyRoute, DELIVERY_DISPATCH)
+                            .thenAccept(DroneCoordination::delivered));
+                }
+            }
+            //the CarrierDrone needs all of its DeliveryDrones back before it can distribute again
+            CompletableFuture.allOf(deliveries.toArray(new CompletableFuture<?>[0])).join();
+
+            if(!cd.isDocking && cd.orders.size() == carried){
+                return cd.unload();
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Completion callback of a DeliveryDrone, marks the orders it flew as delivered
+     * @param orders the orders in question
+     */
+    private static void delivered(List<Order> orders){
+        for(Order order : orders){
+            order.setStatus(OrderStatus.DELIVERED);
+        }
+    }
+
+    /**
+     * Gets the result of a finished flight
+     * @param flight the flight in question
+     * @return the result of the flight
+     * @throws DroneException if a drone of the flight got overfilled
+     */
+    private static List<Order> await(CompletableFuture<List<Order>> flight) throws DroneException {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if(e.getCause() instanceof DroneException){
+                throw (DroneException) e.getCause();
             }
+            throw e;
         }
     }
 }
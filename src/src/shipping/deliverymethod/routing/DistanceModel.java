@@ -0,0 +1,34 @@
+package src.shipping.deliverymethod.routing;
+
+import src.shipping.order.Address;
+
+import java.util.List;
+
+/**
+ * Defines the distance between two addresses, used to plan the routes of the drones
+ */
+public interface DistanceModel {
+
+    /**
+     * Gets the distance between two addresses
+     * @param from the address the drone starts at (null for the dock of the drone)
+     * @param to the address the drone goes to (null for the dock of the drone)
+     * @return the distance in question
+     */
+    double distance(Address from, Address to);
+
+    /**
+     * Gets the length of a route starting and ending at the dock of the drone
+     * @param stops the addresses in the order they are visited
+     * @return the length of the route
+     */
+    default double routeLength(List<Address> stops){
+        double length = 0;
+        Address previous = null;
+        for(Address stop : stops){
+            length += distance(previous, stop);
+            previous = stop;
+        }
+        return length + distance(previous, null);
+    }
+}
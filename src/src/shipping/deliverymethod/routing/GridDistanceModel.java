@@ -0,0 +1,47 @@
+package src.shipping.deliverymethod.routing;
+
+import src.shipping.order.Address;
+
+/**
+ * DistanceModel mapping the area codes of a continent onto a grid
+ * area n lies in column n % width and row n / width, the dock is at area 0.
+ * Addresses on different continents are an extra CONTINENT_DISTANCE apart
+ */
+public class GridDistanceModel implements DistanceModel {
+
+    public static final int DEFAULT_WIDTH = 10;
+    public static final double CONTINENT_DISTANCE = 1000;
+
+    //amount of areas per row of the grid
+    private final int width;
+
+    //constructor 1
+    public GridDistanceModel() {
+        this(DEFAULT_WIDTH);
+    }
+
+    //constructor 2
+    public GridDistanceModel(int width) {
+        this.width = width;
+    }
+
+    /**
+     * {@inheritdoc}
+     */
+    @Override
+    public double distance(Address from, Address to) {
+        int fromArea = from == null ? 0 : from.getArea();
+        int toArea = to == null ? 0 : to.getArea();
+        double dx = fromArea % width - toArea % width;
+        double dy = fromArea / width - toArea / width;
+        double distance = Math.sqrt(dx * dx + dy * dy);
+        if(from != null && to != null && from.getRegion() != to.getRegion()){
+            distance += CONTINENT_DISTANCE;
+        }
+        return distance;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+}
@@ -0,0 +1,47 @@
+package src.shipping.deliverymethod.routing;
+
+import src.shipping.order.Address;
+import src.shipping.order.Order;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * RoutePlanner always going to the closest address not visited yet
+ */
+public class NearestNeighbourPlanner implements RoutePlanner {
+
+    private final DistanceModel model;
+
+    public NearestNeighbourPlanner(DistanceModel model) {
+        this.model = model;
+    }
+
+    /**
+     * {@inheritdoc}
+     */
+    @Override
+    public List<Order> plan(List<Order> orders) {
+        List<Order> left = new ArrayList<>(orders);
+        List<Order> route = new ArrayList<>(orders.size());
+        Address position = null;
+        while(!left.isEmpty()){
+            int closest = 0;
+            double best = Double.MAX_VALUE;
+            for(int i = 0; i < left.size(); i++){
+                double distance = model.distance(position, left.get(i).getAddress());
+                if(distance < best){
+                    best = distance;
+                    closest = i;
+                }
+            }
+            //swap with the last one, the order of the ones left doesn't matter
+            Order next = left.get(closest);
+            left.set(closest, left.get(left.size() - 1));
+            left.remove(left.size() - 1);
+            route.add(next);
+            position = next.getAddress();
+        }
+        return route;
+    }
+}
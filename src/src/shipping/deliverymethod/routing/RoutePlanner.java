@@ -0,0 +1,18 @@
+package src.shipping.deliverymethod.routing;
+
+import src.shipping.order.Order;
+
+import java.util.List;
+
+/**
+ * Decides in which order a drone visits the addresses of its orders
+ */
+public interface RoutePlanner {
+
+    /**
+     * Plans the route for a set of orders, starting and ending at the dock of the drone
+     * @param orders the orders in question
+     * @return the same orders in the order they should be delivered
+     */
+    List<Order> plan(List<Order> orders);
+}
@@ -0,0 +1,61 @@
+package src.shipping.deliverymethod.routing;
+
+import src.shipping.order.Address;
+import src.shipping.order.Order;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * RoutePlanner improving the route of another planner with 2-opt:
+ * a part of the route gets reversed as long as that makes the route shorter
+ */
+public class TwoOptPlanner implements RoutePlanner {
+
+    //max amount of passes over the route
+    public static final int MAX_PASSES = 100;
+    //improvements smaller than this are ignored (rounding errors)
+    private static final double EPSILON = 1e-9;
+
+    private final RoutePlanner start;
+    private final DistanceModel model;
+
+    /**
+     * Constructor
+     * @param start the planner building the initial route
+     * @param model the distance model in use
+     */
+    public TwoOptPlanner(RoutePlanner start, DistanceModel model) {
+        this.start = start;
+        this.model = model;
+    }
+
+    /**
+     * {@inheritdoc}
+     */
+    @Override
+    public List<Order> plan(List<Order> orders) {
+        List<Order> route = start.plan(orders);
+        int n = route.size();
+        boolean improved = true;
+        for(int pass = 0; pass < MAX_PASSES && improved; pass++){
+            improved = false;
+            for(int i = 0; i < n - 1; i++){
+                for(int k = i + 1; k < n; k++){
+                    //reversing i..k replaces the edges (before i, i) and (k, after k)
+                    Address before = i == 0 ? null : route.get(i - 1).getAddress();
+                    Address after = k == n - 1 ? null : route.get(k + 1).getAddress();
+                    Address first = route.get(i).getAddress();
+                    Address last = route.get(k).getAddress();
+                    double delta = model.distance(before, last) + model.distance(first, after)
+                            - model.distance(before, first) - model.distance(last, after);
+                    if(delta < -EPSILON){
+                        Collections.reverse(route.subList(i, k + 1));
+                        improved = true;
+                    }
+                }
+            }
+        }
+        return route;
+    }
+}
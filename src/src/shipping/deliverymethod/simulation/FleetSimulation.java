@@ -0,0 +1,317 @@
+package src.shipping.deliverymethod.simulation;
+
+import src.exceptions.DroneException;
+import src.shipping.deliverymethod.drones.CarrierDrone;
+import src.shipping.deliverymethod.drones.DeliveryDrone;
+import src.shipping.deliverymethod.drones.DroneCoordination;
+import src.shipping.deliverymethod.routing.DistanceModel;
+import src.shipping.deliverymethod.routing.RoutePlanner;
+import src.shipping.order.Address;
+import src.shipping.order.Order;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Discrete-event simulation of the drone fleet of a facility
+ * Instead of flying in real time the drones are loaded and unloaded by events on a virtual clock (in hours),
+ * the events get processed in the order of their time, so a whole day takes only as long as its events.
+ * The drones are loaded the same way as by the DroneCoordination:
+ * every dispatch interval the waiting orders get packed onto the docking CarrierDrones,
+ * which distribute them among their DeliveryDrones once they reached their continent.
+ * Orders too large for every drone get rejected, CarrierDrones without DeliveryDrones are left out.
+ * NOTE: turn off Drone.setLogging() for large simulations, the DeliveryDrones still print every stop
+ */
+public class FleetSimulation {
+
+    //default times in hours
+    public static final double DEFAULT_DISPATCH_INTERVAL = 1.0 / 60;
+    public static final double DEFAULT_CARRIER_FLIGHT_TIME = 0.25;
+    public static final double DEFAULT_DOCK_TIME = 0.1;
+    public static final double DEFAULT_RECHARGE_TIME = 0.25;
+    public static final double DEFAULT_DROP_TIME = 1.0 / 60;
+
+    //the fleet of the facility
+    private final List<CarrierDrone> carrierDrones;
+
+    //flight time of a DeliveryDrone: length of its route between the areas / speed (distance per hour)
+    private final DistanceModel distances;
+    private final double speed;
+
+    //how often the waiting orders get packed onto the CarrierDrones at the facility
+    private double dispatchInterval = DEFAULT_DISPATCH_INTERVAL;
+    //time of a CarrierDrone from the facility to its continent (same way back)
+    private double carrierFlightTime = DEFAULT_CARRIER_FLIGHT_TIME;
+    //time a CarrierDrone needs at the facility before it can be loaded again
+    private double dockTime = DEFAULT_DOCK_TIME;
+    //time a DeliveryDrone needs at its CarrierDrone before it can be loaded again
+    private double rechargeTime = DEFAULT_RECHARGE_TIME;
+    //time a DeliveryDrone needs to drop off a single order
+    private double dropTime = DEFAULT_DROP_TIME;
+
+    //state of a run
+    private final PriorityQueue<Event> events;
+    private double clock;
+    private long sequence;
+    private Deque<Order> waiting;
+    private List<CarrierDrone> available;
+    private Set<DeliveryDrone> delivering;
+    private Map<CarrierDrone, Double> departures;
+    private Map<Order, Double> arrivals;
+    private List<Order> incoming;
+    private double[] arrivalTimes;
+    private int next;
+    private int stuck;
+    private SimulationReport report;
+
+    //constructor
+    public FleetSimulation(List<CarrierDrone> carrierDrones, DistanceModel distances, double speed) {
+        this.carrierDrones = carrierDrones;
+        this.distances = distances;
+        this.speed = speed;
+        this.events = new PriorityQueue<>();
+    }
+
+    /**
+     * Simulates the delivery of the orders by the fleet, starting with all drones docked at the facility
+     * @param orders the orders in the order they arrive at the facility
+     * @param arrivalTimes the time each order arrives (in hours, ascending)
+     * @return the results of the simulation
+     * @throws DroneException if a drone gets overfilled
+     */
+    public SimulationReport run(List<Order> orders, double[] arrivalTimes) throws DroneException {
+        if(orders.size() != arrivalTimes.length){
+            throw new IllegalArgumentException("Every order needs an arrival time");
+        }
+        events.clear();
+        clock = 0;
+        sequence = 0;
+        waiting = new ArrayDeque<>();
+        available = new ArrayList<>(carrierDrones);
+        delivering = Collections.newSetFromMap(new IdentityHashMap<>());
+        departures = new IdentityHashMap<>();
+        arrivals = new IdentityHashMap<>();
+        incoming = orders;
+        this.arrivalTimes = arrivalTimes;
+        next = 0;
+        stuck = 0;
+        int deliveryDrones = 0;
+        for(CarrierDrone cd : carrierDrones){
+            deliveryDrones += cd.getDeliveryDrones().size();
+        }
+        report = new SimulationReport(carrierDrones.size(), deliveryDrones);
+
+        long start = System.nanoTime();
+        if(!orders.isEmpty()){
+            //the arrivals get scheduled one after another, so only the next one is in the queue
+            schedule(arrivalTimes[0], this::arrive);
+            schedule(arrivalTimes[0], this::dispatch);
+        }
+        long processed = 0;
+        while(!events.isEmpty()){
+            Event event = events.poll();
+            clock = event.time;
+            event.action.run();
+            processed++;
+        }
+        report.finish(clock, waiting.size(), processed, (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    /**
+     * Adds an event to the queue
+     * @param time the time the event happens
+     * @param action what happens
+     */
+    private void schedule(double time, Action action){
+        events.add(new Event(time, sequence++, action));
+    }
+
+    /**
+     * Lets the next order arrive at the facility
+     */
+    private void arrive(){
+        Order order = incoming.get(next);
+        arrivals.put(order, clock);
+        waiting.add(order);
+        next++;
+        if(next < incoming.size()){
+            schedule(arrivalTimes[next], this::arrive);
+        }
+    }
+
+    /**
+     * Packs the waiting orders onto the docking CarrierDrones and sends them off,
+     * repeats every dispatch interval until no more orders arrive and no drone is flying
+     */
+    private void dispatch() throws DroneException {
+        if(!waiting.isEmpty() && !available.isEmpty()){
+            //only as many orders as the CarrierDrones have places get taken out of the queue
+            int places = 0;
+            for(CarrierDrone cd : available){
+                places += cd.getCapacity() - cd.getOrders().size();
+            }
+            List<Order> window = new ArrayList<>(Math.min(places, waiting.size()));
+            while(window.size() < places && !waiting.isEmpty()){
+                window.add(waiting.poll());
+            }
+            //orders no drone of the fleet can carry would be requeued forever
+            for(Order order : DroneCoordination.rejectOversized(carrierDrones, window)){
+                arrivals.remove(order);
+                report.rejected();
+            }
+            if(DroneCoordination.isGrouping()){
+                DroneCoordination.groupByArea(window);
+            }
+            DroneCoordination.pack(available, window);
+            requeue(window);
+
+            List<CarrierDrone> departing = new ArrayList<>();
+            for(CarrierDrone cd : available){
+                if(!cd.isDocking()){
+                    departing.add(cd);
+                }
+            }
+            available.removeAll(departing);
+            for(CarrierDrone cd : departing){
+                for(Order order : cd.getOrders()){
+                    report.dispatched(clock - arrivals.get(order));
+                }
+                departures.put(cd, clock);
+                schedule(clock + carrierFlightTime, () -> distribute(cd));
+            }
+        }
+
+        boolean arriving = next < incoming.size();
+        boolean flying = available.size() + stuck < carrierDrones.size();
+        if(arriving || flying){
+            schedule(clock + dispatchInterval, this::dispatch);
+        }
+    }
+
+    /**
+     * Lets a CarrierDrone at its continent load its docked DeliveryDrones and sends them off,
+     * sends the CarrierDrone back once it is empty and all of its DeliveryDrones are back
+     * @param cd the CarrierDrone in question
+     */
+    private void distribute(CarrierDrone cd) throws DroneException {
+        cd.deliver();
+        boolean flying = false;
+        for(DeliveryDrone dd : cd.getDeliveryDrones()){
+            if(!dd.isDocking() && delivering.add(dd)){
+                fly(cd, dd);
+            }
+            flying |= delivering.contains(dd);
+        }
+        if(flying){
+            return;
+        }
+        if(!cd.isDocking()){
+            //no DeliveryDrone of this CarrierDrone could take the orders, they go back to the facility
+            requeue(cd.unload());
+            if(cd.getDeliveryDrones().isEmpty()){
+                //it can't deliver anything, so it is left out
+                stuck++;
+                report.carrierBusy(clock - departures.remove(cd));
+                return;
+            }
+        }
+        schedule(clock + carrierFlightTime + dockTime, () -> {
+            report.carrierBusy(clock - departures.remove(cd));
+            available.add(cd);
+        });
+    }
+
+    /**
+     * Sends a loaded DeliveryDrone along its route and lets it come back after delivering and recharging
+     * @param cd the CarrierDrone it docks to
+     * @param dd the DeliveryDrone in question
+     */
+    private void fly(CarrierDrone cd, DeliveryDrone dd){
+        List<Order> loaded = new ArrayList<>(dd.getOrders());
+        RoutePlanner planner = dd.getRoutePlanner();
+        List<Order> route = planner != null && loaded.size() > 1 ? planner.plan(loaded) : loaded;
+        List<Address> stops = new ArrayList<>(route.size());
+        for(Order order : route){
+            stops.add(order.getAddress());
+        }
+        double flight = distances.routeLength(stops) / speed + route.size() * dropTime;
+        double delivered = clock + flight;
+        report.deliveryBusy(flight + rechargeTime);
+
+        schedule(delivered + rechargeTime, () -> {
+            for(Order order : route){
+                report.delivered(delivered - arrivals.remove(order));
+            }
+            dd.deliver();
+            delivering.remove(dd);
+            distribute(cd);
+        });
+    }
+
+    /**
+     * Puts orders back to the front of the waiting orders, in their order
+     * @param orders the orders in question
+     */
+    private void requeue(List<Order> orders){
+        for(int i = orders.size() - 1; i >= 0; i--){
+            waiting.addFirst(orders.get(i));
+        }
+    }
+
+    //setter
+    public void setDispatchInterval(double dispatchInterval) {
+        this.dispatchInterval = dispatchInterval;
+    }
+
+    public void setCarrierFlightTime(double carrierFlightTime) {
+        this.carrierFlightTime = carrierFlightTime;
+    }
+
+    public void setDockTime(double dockTime) {
+        this.dockTime = dockTime;
+    }
+
+    public void setRechargeTime(double rechargeTime) {
+        this.rechargeTime = rechargeTime;
+    }
+
+    public void setDropTime(double dropTime) {
+        this.dropTime = dropTime;
+    }
+
+    /**
+     * Something that happens at a point of the simulation
+     */
+    private interface Action {
+        void run() throws DroneException;
+    }
+
+    /**
+     * An entry of the event queue, events at the same time happen in the order they were scheduled
+     */
+    private static class Event implements Comparable<Event> {
+        private final double time;
+        private final long sequence;
+        private final Action action;
+
+        public Event(double time, long sequence, Action action) {
+            this.time = time;
+            this.sequence = sequence;
+            this.action = action;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int compare = Double.compare(time, other.time);
+            return compare != 0 ? compare : Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package src.shipping.deliverymethod.simulation;
+
+/**
+ * The results of a FleetSimulation run, all times are in simulated hours
+ */
+public class SimulationReport {
+
+    //fleet
+    private final int carrierDrones;
+    private final int deliveryDrones;
+
+    //orders
+    private int dispatched;
+    private int delivered;
+    private int deferred;
+    //orders too large for every drone of the fleet
+    private int rejected;
+
+    //time from arrival at the facility until departure on a CarrierDrone
+    private double queueingDelay;
+    private double maxQueueingDelay;
+
+    //time from arrival at the facility until delivery
+    private double deliveryTime;
+    private double maxDeliveryTime;
+
+    //time the drones were not docked at the facility / their CarrierDrone
+    private double carrierBusy;
+    private double deliveryBusy;
+
+    //length of the simulation
+    private double hours;
+    private long events;
+    private long millis;
+
+    //constructor
+    public SimulationReport(int carrierDrones, int deliveryDrones) {
+        this.carrierDrones = carrierDrones;
+        this.deliveryDrones = deliveryDrones;
+    }
+
+    void dispatched(double delay){
+        dispatched++;
+        queueingDelay += delay;
+        maxQueueingDelay = Math.max(maxQueueingDelay, delay);
+    }
+
+    void rejected(){
+        rejected++;
+    }
+
+    void delivered(double time){
+        delivered++;
+        deliveryTime += time;
+        maxDeliveryTime = Math.max(maxDeliveryTime, time);
+    }
+
+    void carrierBusy(double time){
+        carrierBusy += time;
+    }
+
+    void deliveryBusy(double time){
+        deliveryBusy += time;
+    }
+
+    void finish(double hours, int deferred, long events, long millis){
+        this.hours = hours;
+        this.deferred = deferred;
+        this.events = events;
+        this.millis = millis;
+    }
+
+    /**
+     * Gets the orders delivered per simulated hour
+     * @return the throughput of the fleet
+     */
+    public double getThroughput(){
+        return hours > 0 ? delivered / hours : 0;
+    }
+
+    public double getMeanQueueingDelay(){
+        return dispatched > 0 ? queueingDelay / dispatched : 0;
+    }
+
+    public double getMaxQueueingDelay() {
+        return maxQueueingDelay;
+    }
+
+    public double getMeanDeliveryTime(){
+        return delivered > 0 ? deliveryTime / delivered : 0;
+    }
+
+    public double getMaxDeliveryTime() {
+        return maxDeliveryTime;
+    }
+
+    /**
+     * Gets the share of the simulated time the CarrierDrones were away from the facility
+     * @return the utilisation between 0 and 1
+     */
+    public double getCarrierUtilisation(){
+        return hours > 0 && carrierDrones > 0 ? carrierBusy / (carrierDrones * hours) : 0;
+    }
+
+    /**
+     * Gets the share of the simulated time the DeliveryDrones were delivering or recharging
+     * @return the utilisation between 0 and 1
+     */
+    public double getDeliveryUtilisation(){
+        return hours > 0 && deliveryDrones > 0 ? deliveryBusy / (deliveryDrones * hours) : 0;
+    }
+
+    //getter
+    public int getCarrierDrones() {
+        return carrierDrones;
+    }
+
+    public int getDeliveryDrones() {
+        return deliveryDrones;
+    }
+
+    public int getDelivered() {
+        return delivered;
+    }
+
+    public int getDeferred() {
+        return deferred;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public double getHours() {
+        return hours;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d CarrierDrones / %d DeliveryDrones: delivered %d (deferred %d, rejected %d) in %.1f h, %.0f orders/h, "
+                        + "queueing delay %.2f h (max %.2f h), delivery time %.2f h (max %.2f h), "
+                        + "utilisation carrier %.1f%% delivery %.1f%%, %d events in %d ms",
+                carrierDrones, deliveryDrones, delivered, deferred, rejected, hours, getThroughput(),
+                getMeanQueueingDelay(), maxQueueingDelay, getMeanDeliveryTime(), maxDeliveryTime,
+                100 * getCarrierUtilisation(), 100 * getDeliveryUtilisation(), events, millis);
+    }
+}
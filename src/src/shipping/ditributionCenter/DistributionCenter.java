@@ -8,57 +8,103 @@ import src.shipping.order.Continent;
 import src.shipping.order.Order;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
-
-import static java.lang.Thread.sleep;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A secondary type of facility used by the Shipping Manager to handle shipping abroad
  */
 public class DistributionCenter extends TaskRequirements implements Runnable{
 
-    //a list of pending orders the DistributionCenter still has to process
+    //orders received from the ShippingManager, many threads add, only the DistributionCenter takes
+    private final Queue<Order> inbox;
+    //a list of pending orders the DistributionCenter still has to process, filled from the inbox
     private final List<Order> pendingOrders;
+    //amount of orders received but not handled yet (inbox and pending orders)
+    private final AtomicInteger load;
+    //amount of orders rejected because they are too large for the drones
+    private final AtomicInteger rejected;
     //a list of large CarrierDrones associated with the DistributionCenter
     private final List<CarrierDrone> carrierDrones;
     //the location the DistributionCenter is based in
     private final Continent location;
 
+    //the thread running the DistributionCenter task (null until it runs)
+    private volatile Thread worker;
+    //max time in ms waited for further orders once the first one arrived (0 handles them right away)
+    private volatile long maxBatchWait;
+    //time in ms after which deferred orders get another try
+    private final int RETRY_INTERVALL = 100;
+
     /**
      * Constructor
      * @param location the location the DistributionCenter is based in
      */
     public DistributionCenter(Continent location) {
-        this.pendingOrders = new ArrayList<>();
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.pendingOrders = Collections.synchronizedList(new ArrayList<>());
+        this.load = new AtomicInteger();
+        this.rejected = new AtomicInteger();
         this.carrierDrones = new ArrayList<>();
         this.location = location;
     }
 
     /**
      * Loads all the pending orders onto the associated CarrierDrones
+     * blocks while the inbox is empty, receiving orders wakes the DistributionCenter up
      */
     @Override
     public void run() {
+        worker = Thread.currentThread();
+        int deferred = 0;
         while (this.isRunning()){
-            //just to slow it down
-            try {
-                sleep(100);
-            } catch (InterruptedException e) {
-                //ignore
+            if(inbox.isEmpty()){
+                if(deferred == 0){
+                    //nothing to do, wait for orders (or termination)
+                    LockSupport.park(this);
+                    continue;
+                }
+                //retry the deferred orders after a while, new orders wake it up earlier
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(RETRY_INTERVALL));
+            } else {
+                //give further orders the chance to arrive, so they get handled together
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchWait);
+                long remaining;
+                while(this.isRunning() && (remaining = deadline - System.nanoTime()) > 0){
+                    LockSupport.parkNanos(this, remaining);
+                }
             }
 
-            //actual delivery
+            //take over the orders received since the last cycle
+            drainPendingOrders();
+            int pending = pendingOrders.size();
+            rejected.addAndGet(DroneCoordination.rejectOversized(carrierDrones, pendingOrders).size());
+
+            //actual delivery, the orders not delivered stay pending
             try {
-                DroneCoordination.completeHandling(carrierDrones, pendingOrders);
+                deferred = DroneCoordination.completeHandling(carrierDrones, pendingOrders);
             } catch (DroneException e) {
                 e.printStackTrace();
+                deferred = pendingOrders.size();
             }
-
-            //clear pending Orders
-            pendingOrders.clear();
+            load.addAndGet(deferred - pending);
         }
     }
 
+    /**
+     * Terminates the DistributionCenter task, wakes it up if it is waiting for orders
+     */
+    @Override
+    public void terminate(){
+        super.terminate();
+        LockSupport.unpark(worker);
+    }
+
     /**
      * Adds a new carrier Drone to the DistributionCenter
      * @param cd The CarrierDrone to be added
@@ -72,16 +118,61 @@ public class DistributionCenter extends TaskRequirements implements Runnable{
      * @param orders the orders we received / have to send
      */
     public void receiveOrders(List<Order> orders){
-        this.pendingOrders.addAll(orders);
+        load.addAndGet(orders.size());
+        inbox.addAll(orders);
+        LockSupport.unpark(worker);
+    }
+
+    /**
+     * Moves the received orders from the inbox to the pending orders
+     * @return the amount of orders moved
+     */
+    public int drainPendingOrders(){
+        int drained = 0;
+        Order order;
+        while((order = inbox.poll()) != null){
+            pendingOrders.add(order);
+            drained++;
+        }
+        return drained;
     }
 
     //getter and setter
+    /**
+     * Gets the amount of orders received but not handled yet, used to balance orders between DistributionCenters
+     * @return the amount of orders in question
+     */
+    public int getLoad() {
+        return load.get();
+    }
+
+    public int getRejected() {
+        return rejected.get();
+    }
+
+    public long getMaxBatchWait() {
+        return maxBatchWait;
+    }
+
+    public void setMaxBatchWait(long maxBatchWait) {
+        this.maxBatchWait = maxBatchWait;
+    }
+
     public Continent getLocation() {
         return location;
     }
 
+    /**
+     * Gets the orders the DistributionCenter still has to process
+     * @return a snapshot of the pending orders and the ones not yet taken from the inbox
+     */
     public List<Order> getPendingOrders() {
-        return pendingOrders;
+        List<Order> snapshot;
+        synchronized (pendingOrders){
+            snapshot = new ArrayList<>(pendingOrders);
+        }
+        snapshot.addAll(inbox);
+        return snapshot;
     }
 
     public List<CarrierDrone> getCarrierDrones() {
@@ -1,9 +1,13 @@
 package src.shipping.order;
 
+import java.io.Serializable;
+
 /**
  * An address, needed as a delivery information
  */
-public class Address {
+public class Address implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     //fields
     private final Continent region;
@@ -23,6 +27,15 @@ public class Address {
         return "Region: " + region + ", Area: " + area + ", Address: " +address;
     }
 
+    /**
+     * Checks if another address lies in the same area, so both can be delivered on one trip
+     * @param other the other address
+     * @return true if region and area are the same
+     */
+    public boolean sameArea(Address other) {
+        return region == other.region && area == other.area;
+    }
+
     //getter
     public Continent getRegion() {
         return region;
@@ -1,23 +1,36 @@
 package src.shipping.order;
 
+import src.warehouse.item.Package;
+import src.warehouse.item.PackageDimensions;
+
 import java.io.Serializable;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * The actual object to used in shipping
  */
 public class Order implements Serializable {
 
+    private static final long serialVersionUID = 1L;
+
     //fields
     private int OID;
     private Address address;
-    private OrderStatus status;
+    private final AtomicReference<OrderStatus> status;
     private boolean wormholeDelivery;
 
+    //aggregate weight and volume of the packages in the order, used to pack the drones
+    private double weight;
+    private double volume;
+
+    //gets notified about status changes (can be null)
+    private transient volatile OrderStatusListener listener;
+
     //constructor
     public Order(int OID, Address address, OrderStatus status, boolean isWormhole) {
         this.OID = OID;
         this.address = address;
-        this.status = status;
+        this.status = new AtomicReference<>(status);
         this.wormholeDelivery = isWormhole;
     }
 
@@ -39,11 +52,70 @@ public class Order implements Serializable {
     }
 
     public OrderStatus getStatus() {
-        return status;
+        return status.get();
     }
 
     public void setStatus(OrderStatus status) {
-        this.status = status;
+        OrderStatus previous = this.status.getAndSet(status);
+        if(previous != status){
+            notifyListener(previous);
+        }
+    }
+
+    /**
+     * Changes the status only if the Order is still in the expected status
+     * check and change happen as one atomic step
+     * @param expected the status the Order is supposed to be in
+     * @param status the new status
+     * @return true if the status got changed
+     */
+    public boolean compareAndSetStatus(OrderStatus expected, OrderStatus status) {
+        if(!this.status.compareAndSet(expected, status)){
+            return false;
+        }
+        if(expected != status){
+            notifyListener(expected);
+        }
+        return true;
+    }
+
+    private void notifyListener(OrderStatus previous) {
+        OrderStatusListener listener = this.listener;
+        if(listener != null){
+            listener.statusChanged(this, previous);
+        }
+    }
+
+    public void setListener(OrderStatusListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Adds a package to the order, its weight and volume count towards the load of the drones
+     * @param pac the package in question
+     */
+    public void addPackage(Package pac) {
+        weight += pac.getWeight();
+        PackageDimensions dimensions = pac.getDimensions();
+        if(dimensions != null){
+            volume += dimensions.getVolume();
+        }
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(double weight) {
+        this.weight = weight;
+    }
+
+    public double getVolume() {
+        return volume;
+    }
+
+    public void setVolume(double volume) {
+        this.volume = volume;
     }
 
     public boolean isWormholeDelivery() {
@@ -59,7 +131,7 @@ public class Order implements Serializable {
         return "Order{" +
                 "OID=" + OID +
                 ", address=" + address +
-                ", status=" + status +
+                ", status=" + status.get() +
                 ", wormholeDelivery=" + wormholeDelivery +
                 '}';
     }
@@ -8,6 +8,7 @@ public enum OrderStatus {
     SCHEDULED,
     PACKAGED,
     IN_DELIVERY,
-    DELIVERED
+    DELIVERED,
+    UNDELIVERABLE
 
 }
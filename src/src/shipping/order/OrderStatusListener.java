@@ -0,0 +1,15 @@
+package src.shipping.order;
+
+/**
+ * Gets notified when the status of an Order changes
+ * used by the DemoDB to queue orders that are ready to be shipped
+ */
+public interface OrderStatusListener {
+
+    /**
+     * Called after the status of an Order changed
+     * @param order the Order in question
+     * @param previous the status it had before
+     */
+    void statusChanged(Order order, OrderStatus previous);
+}
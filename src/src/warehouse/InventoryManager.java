@@ -3,6 +3,7 @@ package src.warehouse;
 import src.common.TaskRequirements;
 import src.database.DemoDB;
 import src.database.Item_Table;
+import src.database.StockListener;
 import src.exceptions.StorageAreaException;
 import src.warehouse.item.Ingredient;
 import src.warehouse.item.Item;
@@ -10,17 +11,21 @@ import src.warehouse.item.Package;
 import src.warehouse.storageArea.GeneralArea;
 import src.warehouse.storageArea.IngredientArea;
 import src.warehouse.storageArea.StorageArea;
+import src.warehouse.storageArea.StorageAreaListener;
 
 
 import java.time.Duration;
+import java.time.LocalDate;
 import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
-
-import static java.lang.Thread.sleep;
 import static src.common.Constants.*;
 
 /**
@@ -37,30 +42,68 @@ public class InventoryManager extends TaskRequirements implements Runnable{
     private final Map<Integer, IngredientArea> ingredientAreas;
     private int id;
 
+    //index item ID -> storageAreas designated to that item (ordered by area ID)
+    private final Map<Integer, Map<Integer, GeneralArea>> generalAreasByItem;
+    private final Map<Integer, Map<Integer, IngredientArea>> ingredientAreasByItem;
+    //capacity and stock over all storageAreas designated to an item, by item ID
+    private final Map<Integer, AreaTotals> generalTotals;
+    private final Map<Integer, AreaTotals> ingredientTotals;
+    //IngredientAreas holding stock by item ID, ordered by their earliest expiry date (FEFO)
+    private final Map<Integer, NavigableMap<ExpiryKey, IngredientArea>> expiryIndex;
+    //current position of each IngredientArea inside the expiryIndex by area ID
+    private final Map<Integer, ExpiryKey> expiryKeys;
+    //expiry calendar: all IngredientAreas holding stock ordered by their earliest expiry date
+    private final NavigableMap<ExpiryKey, IngredientArea> expiryCalendar;
+    //IDs of the IngredientAreas holding batches flagged as spoiled
+    private final Set<Integer> spoiledAreas;
+
     //hold information about storageArea state anomalies (state!=NORMAL)
     private final Map<Integer, Warnings> storageAreaAnomalies;
 
-    //list of warnings (not space to accommodate the needed amount of ITEMS of a certain type)
-    private final Map<Item, Warnings> inventoryWarnings;
+    //list of warnings by item ID (not space to accommodate the needed amount of ITEMS of a certain type)
+    private final Map<Integer, Warnings> inventoryWarnings;
+
 
+    //items that dropped below their threshold and wait to be reordered
+    private final BlockingQueue<Item> replenishmentQueue;
+    private final Set<Item> pendingReplenishment;
+    private final StockListener<Item> replenishmentListener;
+    //used to wake up the main task on termination
+    private static final Item WAKE_UP = new Item(-1, "WAKE_UP", "", 0, 0);
+    //interval of the full sweep over all tables (safety net for missed events)
+    private final int SWEEP_INTERVALL = 60000;
 
     //task running once a day at given time
     private final ScheduledExecutorService scheduler;
     private final int[] TIME = new int[]{6,0,0};
+    //duration of the last daily check in ms
+    private volatile long dailyCheckMillis;
 
 
     /**
      * Constructor for class
      */
     public InventoryManager() {
-        this.generalAreas = new TreeMap<>();
-        this.ingredientAreas = new TreeMap<>();
+        this.generalAreas = new ConcurrentSkipListMap<>();
+        this.ingredientAreas = new ConcurrentSkipListMap<>();
+        this.generalAreasByItem = new ConcurrentHashMap<>();
+        this.ingredientAreasByItem = new ConcurrentHashMap<>();
+        this.generalTotals = new ConcurrentHashMap<>();
+        this.ingredientTotals = new ConcurrentHashMap<>();
+        this.expiryIndex = new HashMap<>();
+        this.expiryKeys = new HashMap<>();
+        this.expiryCalendar = new TreeMap<>(ExpiryKey.ORDER);
+        this.spoiledAreas = ConcurrentHashMap.newKeySet();
 
         this.id = 0;
         this.storageAreaAnomalies = new TreeMap<>();
 
         this.inventoryWarnings = new TreeMap<>();
 
+        this.replenishmentQueue = new LinkedBlockingQueue<>();
+        this.pendingReplenishment = ConcurrentHashMap.newKeySet();
+        this.replenishmentListener = this::queueReplenishment;
+
         //scheduled task running a 6am each day (daly check of IngredientAreas)
         this.scheduler = Executors.newScheduledThreadPool(1);
         ZonedDateTime now = ZonedDateTime.now(ZoneId.of("Europe/Vienna"));
@@ -83,6 +126,7 @@ public class InventoryManager extends TaskRequirements implements Runnable{
     public void terminate(){
         //shutdown for InventoryManager task
         super.terminate();
+        replenishmentQueue.offer(WAKE_UP);
 
         //shutdown of daily check method task
         scheduler.shutdown();
@@ -101,7 +145,7 @@ public class InventoryManager extends TaskRequirements implements Runnable{
      * @param area the StorageArea to be added
      * @return true if successful
      */
-    public boolean addArea(StorageArea area){
+    public synchronized boolean addArea(StorageArea<?> area){
         if(area instanceof GeneralArea){
             generalAreas.put(id, (GeneralArea) area);
         }else if(area instanceof IngredientArea){
@@ -109,6 +153,8 @@ public class InventoryManager extends TaskRequirements implements Runnable{
         } else {
             return false;
         }
+        index(id, area, area.getDesignated());
+        area.setListener(new AreaIndexer(id));
 
         id++;
         return true;
@@ -119,21 +165,153 @@ public class InventoryManager extends TaskRequirements implements Runnable{
      * @param id the ide of the area to be removed
      * @return true if successful
      */
-    public boolean removeArea(int id){
+    public synchronized boolean removeArea(int id){
+        StorageArea<?> area;
         if(generalAreas.containsKey(id)){
-            if(generalAreas.get(id).removable()){
+            area = generalAreas.get(id);
+            if(area.removable()){
                 generalAreas.remove(id);
             }
         }else if(ingredientAreas.containsKey(id)){
-            if(ingredientAreas.get(id).removable()){
+            area = ingredientAreas.get(id);
+            if(area.removable()){
                 ingredientAreas.remove(id);
             }
         }else{
             return false;
         }
+        if(area.removable()){
+            area.setListener(null);
+            unindex(id, area, area.getDesignated());
+        }
         return true;
     }
 
+    /**
+     * Adds a StorageArea to the index of the item it is designated to
+     * @param id the id of the area
+     * @param area the area in question
+     * @param designated the item the area is designated to (can be null)
+     */
+    private void index(int id, StorageArea<?> area, Item designated){
+        if(designated == null){
+            return;
+        }
+        if(area instanceof GeneralArea){
+            generalAreasByItem.computeIfAbsent(designated.getIID(), k -> new ConcurrentSkipListMap<>()).put(id, (GeneralArea) area);
+        } else {
+            ingredientAreasByItem.computeIfAbsent(designated.getIID(), k -> new ConcurrentSkipListMap<>()).put(id, (IngredientArea) area);
+        }
+        totalsOf(area, designated).add(area.getCapacity(), area.getStock());
+        if(area instanceof IngredientArea){
+            reindexExpiry(id, (IngredientArea) area);
+        }
+    }
+
+    /**
+     * Removes a StorageArea from the index of the item it was designated to
+     * @param id the id of the area
+     * @param area the area in question
+     * @param designated the item the area was designated to (can be null)
+     */
+    private void unindex(int id, StorageArea<?> area, Item designated){
+        if(designated == null){
+            return;
+        }
+        Map<Integer, ? extends StorageArea<?>> areas = (area instanceof GeneralArea ? generalAreasByItem : ingredientAreasByItem)
+                .get(designated.getIID());
+        if(areas != null && areas.remove(id) != null){
+            if(areas.isEmpty()){
+                (area instanceof GeneralArea ? generalAreasByItem : ingredientAreasByItem).remove(designated.getIID());
+            }
+            totalsOf(area, designated).add(-area.getCapacity(), -area.getStock());
+        }
+        if(area instanceof IngredientArea){
+            unindexExpiry(id);
+        }
+    }
+
+    /**
+     * Moves an IngredientArea to the position of its current earliest expiry date in the expiryIndex
+     * areas without stock that can be taken (none or only spoiled) are not part of the index
+     * @param id the id of the area
+     * @param area the area in question
+     */
+    private void reindexExpiry(int id, IngredientArea area){
+        //the area lock is always taken before the one of the expiryIndex (the area calls its listener
+        //while holding its lock), holding it here keeps updates of the same area in order
+        synchronized (area){
+            LocalDate first = area.peakAtFirst();
+            Item designated = area.getDesignated();
+            synchronized (expiryIndex){
+                unindexExpiry(id);
+                if(first != null && designated != null){
+                    ExpiryKey key = new ExpiryKey(first, id, designated.getIID());
+                    expiryIndex.computeIfAbsent(key.iid(), k -> new TreeMap<>(ExpiryKey.ORDER)).put(key, area);
+                    expiryCalendar.put(key, area);
+                    expiryKeys.put(id, key);
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes an IngredientArea from the expiryIndex
+     * @param id the id of the area
+     */
+    private void unindexExpiry(int id){
+        synchronized (expiryIndex){
+            ExpiryKey key = expiryKeys.remove(id);
+            if(key != null){
+                NavigableMap<ExpiryKey, IngredientArea> areas = expiryIndex.get(key.iid());
+                areas.remove(key);
+                if(areas.isEmpty()){
+                    expiryIndex.remove(key.iid());
+                }
+                expiryCalendar.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Gets the totals of all areas of the same kind as the given area designated to an item
+     * @param area an area of the kind in question
+     * @param item the item in question
+     * @return the totals (created if needed)
+     */
+    private AreaTotals totalsOf(StorageArea<?> area, Item item){
+        return (area instanceof GeneralArea ? generalTotals : ingredientTotals)
+                .computeIfAbsent(item.getIID(), k -> new AreaTotals());
+    }
+
+    /**
+     * Gets the free capacity over all storage areas designated to an item
+     * @param item the item in question
+     * @return the amount of items that still fit
+     */
+    public int getFreeCapacity(Item item){
+        AreaTotals totals = (item instanceof Ingredient ? ingredientTotals : generalTotals).get(item.getIID());
+        return totals == null ? 0 : totals.free();
+    }
+
+    /**
+     * Gets all GeneralAreas designated to an item
+     * @param item the item in question
+     * @return the areas ordered by their ID
+     */
+    private Collection<GeneralArea> generalAreasOf(Item item){
+        return generalAreasByItem.getOrDefault(item.getIID(), Collections.emptyMap()).values();
+    }
+
+    /**
+     * Gets all IngredientAreas designated to an item
+     * @param item the item in question
+     * @return the areas ordered by their ID
+     */
+    private Collection<IngredientArea> ingredientAreasOf(Item item){
+        return ingredientAreasByItem.getOrDefault(item.getIID(), Collections.emptyMap()).values();
+    }
+
     /**
      * Sets a Storage Area to its normal State
      * @param id the ide of the area to be removed
@@ -188,19 +366,59 @@ public class InventoryManager extends TaskRequirements implements Runnable{
     }
 
     /**
-     * runs the daily check method of the ingredient area
+     * Gets how long the last daily check took
+     * @return the duration in ms (0 before the first check)
+     */
+    public long getDailyCheckMillis() {
+        return dailyCheckMillis;
+    }
+
+    /**
+     * runs the daily check method of the ingredient areas with expiring or spoiled products
+     * the areas get checked in parallel on the common pool (each area locks on itself),
+     * the removed amounts are summed up by item and the thresholds adjusted afterwards
      * will be called onc a day by the InventoryManager
      *
      * "can be called by the MAIN program" but only for demo purposes
+     * @return the amount of products removed
      */
-    public void dalyCheck(){
-        for(Integer i : ingredientAreas.keySet()){
-            int removeCount = 0;
-            removeCount += ingredientAreas.get(i).dalyCheck();
+    public int dalyCheck(){
+        long start = System.nanoTime();
+        //only visit the areas with products expiring today (or earlier) and the ones holding spoiled products
+        Map<Integer, IngredientArea> due = new TreeMap<>();
+        synchronized (expiryIndex){
+            ExpiryKey endOfToday = new ExpiryKey(LocalDate.now(), Integer.MAX_VALUE, 0);
+            for(ExpiryKey key : expiryCalendar.headMap(endOfToday, true).keySet()){
+                due.put(key.areaId(), expiryCalendar.get(key));
+            }
+        }
+        for(Integer i : spoiledAreas){
+            spoiledAreas.remove(i);
+            if(ingredientAreas.containsKey(i)){
+                due.put(i, ingredientAreas.get(i));
+            }
+        }
+
+        //removed amount by item ID
+        Map<Integer, Integer> removed = new ConcurrentHashMap<>();
+        due.values().parallelStream().forEach(area -> {
+            Item designated = area.getDesignated();
+            int removeCount = area.dalyCheck();
             if(removeCount != 0){
-                DemoDB.getInstance().getIngredientTable().setThreshold(ingredientAreas.get(i).getDesignated().getIID(), -removeCount);
+                removed.merge(designated.getIID(), removeCount, Integer::sum);
             }
+        });
+
+        Map<Integer, Integer> thresholds = new HashMap<>();
+        int total = 0;
+        for(Map.Entry<Integer, Integer> i : removed.entrySet()){
+            thresholds.put(i.getKey(), -i.getValue());
+            total += i.getValue();
         }
+        DemoDB.getInstance().getIngredientTable().setThresholds(thresholds);
+
+        dailyCheckMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return total;
     }
 
     /**
@@ -245,19 +463,40 @@ public class InventoryManager extends TaskRequirements implements Runnable{
      */
     public void request(String itemName, int amount) throws StorageAreaException {
         DemoDB db = DemoDB.getInstance();
-        //find the item based on id by going over all tables
-        Item_Table<Ingredient> iTab = db.getIngredientTable();
-        for(int i : iTab.getAll().keySet()){
-            if(iTab.getEntry(i).getName().equals(itemName)){
-                if(iTab.getAmount(i) >= amount){
-                    send(iTab.getEntry(i), amount);
-                } else {
-                    throw new StorageAreaException("NOT ENOUGH of: " + itemName + "available");
-                }
-            }
+        //find the item based on its name by looking it up in the index of each table
+        if(!request(db.getIngredientTable(), itemName, amount)
+                && !request(db.getPackageTable(), itemName, amount)){
+            request(db.getPartTable(), itemName, amount);
         }
     }
 
+    /**
+     * Takes a request for an item of a single table
+     * @param table the Table of the Database that gets searched
+     * @param itemName the name of the item needed
+     * @param amount the amount of the Item
+     * @return true if the item is part of the table
+     * @throws StorageAreaException if not enough items ar available
+     */
+    private boolean request(Item_Table<? extends Item> table, String itemName, int amount) throws StorageAreaException {
+        Integer id = table.findId(itemName);
+        if(id == null){
+            return false;
+        }
+        //check and remove from DB in one step so concurrent requests can't take the same items
+        if(!table.reserve(id, amount)){
+            throw new StorageAreaException("NOT ENOUGH of: " + itemName + "available");
+        }
+        try {
+            send(table.getEntry(id), amount);
+        } catch (StorageAreaException e) {
+            table.release(id, amount);
+            throw e;
+        }
+        table.checkThreshold(id);
+        return true;
+    }
+
     /**
      * Sends the request Item
      * @param item the item requested
@@ -265,7 +504,7 @@ public class InventoryManager extends TaskRequirements implements Runnable{
      * @return s
      */
     private String send(Item item, int amount) throws StorageAreaException {
-        removeFromStorage(item, amount);
+        takeFromAreas(item, amount);
         return "Sent " + amount + " of " + item.getName();
     }
 
@@ -286,25 +525,12 @@ public class InventoryManager extends TaskRequirements implements Runnable{
             DemoDB.getInstance().getPartTable().setAmount(item.getIID(), amount);
         }
 
-        //distribute among Storage Areas
-        StorageArea currentArea;
-        if(item instanceof Ingredient){
-            for(int i : ingredientAreas.keySet()){
-                currentArea = ingredientAreas.get(i);
-                amount = distributeInAreas(currentArea, item, amount);
-                if(amount == 0){
-                    return;
-                }
-
-            }
-        }else {//item is Part or Package
-            for(int i : generalAreas.keySet()){
-                currentArea = generalAreas.get(i);
-                amount = distributeInAreas(currentArea, item, amount);
-                if(amount == 0){
-                    return;
-                }
-
+        //distribute among the Storage Areas designated to the item
+        Collection<? extends StorageArea<?>> areas = item instanceof Ingredient ? ingredientAreasOf(item) : generalAreasOf(item);
+        for(StorageArea<?> currentArea : areas){
+            amount = distributeInAreas(currentArea, item, amount);
+            if(amount == 0){
+                return;
             }
         }
 
@@ -318,21 +544,14 @@ public class InventoryManager extends TaskRequirements implements Runnable{
      * @return new value for Amount
      * @throws StorageAreaException if StorageArea gets overfilled
      */
-    private int distributeInAreas(StorageArea currentArea, Item item, int amount) throws StorageAreaException {
-        if(currentArea.getDesignated().getName().equals(item.getName())){
-            if(currentArea.getCapacity() >= amount){
-                for(int j = 0; j < amount; j++){
-                    currentArea.deposit(item);
-                }
-                return 0;
-            }else{
-                for(int j = 0; j < currentArea.getCapacity(); j++){
-                    currentArea.deposit(item);
-                    amount--;
-                }
-            }
+    private int distributeInAreas(StorageArea<?> currentArea, Item item, int amount) throws StorageAreaException {
+        int fits = Math.min(amount, currentArea.getCapacity() - currentArea.getStock());
+        if(currentArea instanceof IngredientArea){
+            ((IngredientArea) currentArea).deposit((Ingredient) item, fits);
+        } else {
+            ((GeneralArea) currentArea).deposit(item, fits);
         }
-        return amount;
+        return amount - fits;
     }
 
     /**
@@ -341,6 +560,9 @@ public class InventoryManager extends TaskRequirements implements Runnable{
      * @param amount the amount ot be taken
      */
     public void removeFromStorage(Item item, int amount) throws StorageAreaException {
+        //remove from storage areas first, so a reorder triggered by the DB sees the freed space
+        takeFromAreas(item, amount);
+
         //remove from DB
         if(item instanceof Ingredient){
             DemoDB.getInstance().getIngredientTable().setAmount(item.getIID(), -amount);
@@ -349,37 +571,39 @@ public class InventoryManager extends TaskRequirements implements Runnable{
         } else{
             DemoDB.getInstance().getPartTable().setAmount(item.getIID(), -amount);
         }
+    }
 
-        //remove from storage areas
-        for(int i = 0; i < amount; i++){
-            if(item instanceof Ingredient){
-                //identify earliest expiring product from storage areas and take it
-                IngredientArea earliestExpiry = null;
-                for(int j : ingredientAreas.keySet()){
-                    IngredientArea currentArea = ingredientAreas.get(j);
-                    if(currentArea.getDesignated().equals(item)){
-                        if(currentArea.getStock() > 0){
-                            if(earliestExpiry == null){
-                                earliestExpiry = currentArea;
-                            } else if(earliestExpiry.peakAtFirst().isAfter(currentArea.peakAtFirst())){
-                                earliestExpiry = currentArea;
-                            }
-                        }
+    /**
+     * takes an item from the storage areas without changing the DB
+     * @param item the item to be taken
+     * @param amount the amount ot be taken
+     */
+    private void takeFromAreas(Item item, int amount) throws StorageAreaException {
+        if(item instanceof Ingredient){
+            while(amount > 0){
+                //identify the area with the earliest expiring product and the one after it
+                IngredientArea earliestExpiry;
+                LocalDate limit;
+                synchronized (expiryIndex){
+                    NavigableMap<ExpiryKey, IngredientArea> areas = expiryIndex.get(item.getIID());
+                    if(areas == null || areas.isEmpty()){
+                        return;
                     }
+                    ExpiryKey first = areas.firstKey();
+                    ExpiryKey second = areas.higherKey(first);
+                    earliestExpiry = areas.get(first);
+                    limit = second == null ? null : second.date();
                 }
-                //take identify earliest expiring
-                if(earliestExpiry != null) {
-                    earliestExpiry.take();
-                }
-
-            } else{//item instanceof Part/Package
-                //simply take first match
-                for(int j : generalAreas.keySet()){
-                    GeneralArea currentArea = generalAreas.get(j);
-                    if(currentArea.getStock() > 0 && currentArea.getDesignated().equals(item)){
-                       currentArea.take();
-                       break;
-                    }
+                //take from the earliest expiring until the next area has an earlier product
+                amount -= earliestExpiry.takeUntil(limit, amount);
+            }
+        } else{//item instanceof Part/Package
+            //simply take from the first matches
+            for(GeneralArea currentArea : generalAreasOf(item)){
+                //checks the stock and takes under the lock of the area, so a concurrent take can't make it fail
+                amount -= currentArea.takeUpTo(amount);
+                if(amount == 0){
+                    return;
                 }
             }
         }
@@ -399,7 +623,7 @@ public class InventoryManager extends TaskRequirements implements Runnable{
      * Prints a list of al the inventoryWarnings
      */
     public void listWarnings(){
-        for (Item i : inventoryWarnings.keySet()){
+        for (Integer i : inventoryWarnings.keySet()){
             System.out.println(inventoryWarnings.get(i));
         }
     }
@@ -409,28 +633,65 @@ public class InventoryManager extends TaskRequirements implements Runnable{
 
     /**
      * Keeps inventory full
+     * reorders an item as soon as the DB reports it below its threshold,
+     * a full sweep over all tables only runs every SWEEP_INTERVALL as a safety net
      */
     @Override
     public void run() {
-       while (this.isRunning()){
-            //needs to sleep
-            try {
-                sleep(2000);
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
+        DemoDB db = DemoDB.getInstance();
+        db.getIngredientTable().addListener(replenishmentListener);
+        db.getPackageTable().addListener(replenishmentListener);
+        db.getPartTable().addListener(replenishmentListener);
 
-            //run orders
+        long nextSweep = 0;
+        while (this.isRunning()){
             try {
-               orderingProcess(DemoDB.getInstance().getIngredientTable(), true);
-               orderingProcess(DemoDB.getInstance().getPackageTable(), false);
-               orderingProcess(DemoDB.getInstance().getPartTable(), false);
+                long wait = nextSweep - System.currentTimeMillis();
+                if(wait <= 0){
+                    //safety net: run orders over all tables
+                    orderingProcess(db.getIngredientTable(), true);
+                    orderingProcess(db.getPackageTable(), false);
+                    orderingProcess(db.getPartTable(), false);
+                    nextSweep = System.currentTimeMillis() + SWEEP_INTERVALL;
+                    continue;
+                }
+
+                //wait for an item to drop below its threshold
+                Item item = replenishmentQueue.poll(wait, TimeUnit.MILLISECONDS);
+                if(item == null || item == WAKE_UP){
+                    continue;
+                }
+                pendingReplenishment.remove(item);
+                if(item instanceof Ingredient){
+                    replenish(db.getIngredientTable(), item.getIID(), true);
+                }else if (item instanceof Package){
+                    replenish(db.getPackageTable(), item.getIID(), false);
+                } else{
+                    replenish(db.getPartTable(), item.getIID(), false);
+                }
             } catch (StorageAreaException e) {
-               e.printStackTrace();
+                e.printStackTrace();
+            } catch (InterruptedException e) {
+                e.printStackTrace();
             }
+        }
 
+        db.getIngredientTable().removeListener(replenishmentListener);
+        db.getPackageTable().removeListener(replenishmentListener);
+        db.getPartTable().removeListener(replenishmentListener);
+    }
 
-       }
+    /**
+     * Queues an item that dropped below its threshold for reordering,
+     * an item only gets queued once until it's handled
+     * @param item the item in question
+     * @param amount the current amount of the item
+     * @param threshold the threshold of the item
+     */
+    private void queueReplenishment(Item item, int amount, int threshold){
+        if(pendingReplenishment.add(item)){
+            replenishmentQueue.offer(item);
+        }
     }
 
     /**
@@ -438,59 +699,53 @@ public class InventoryManager extends TaskRequirements implements Runnable{
      * @param table the Table of the Database it's focusing on
      * @param isIngredient true if table<Ingredient>
      */
-    public void orderingProcess(Item_Table table, boolean isIngredient) throws StorageAreaException {
+    public void orderingProcess(Item_Table<? extends Item> table, boolean isIngredient) throws StorageAreaException {
         //go over content of table
-        for(Object i : table.getAll().keySet()){
-            //min amount of each ingredient
-            int threshold = table.getThreshold((Integer) i);
-
-            //get amount of free capacity
-            int free = 0;
-            if(isIngredient){
-                for(Integer j : ingredientAreas.keySet()){
-                    IngredientArea currentArea = ingredientAreas.get(j);
-                    if(currentArea.getDesignated() == table.getEntry((Integer) i)){
-                        free += (currentArea.getCapacity()-currentArea.getStock());
-                    }
-                }
-            }else {
-                for (Integer j : generalAreas.keySet()) {
-                    GeneralArea currentArea = generalAreas.get(j);
-                    if(currentArea.getDesignated() == table.getEntry((Integer) i)){
-                        free += (currentArea.getCapacity()-currentArea.getStock());
-                    }
+        for(Integer i : table.getAll().keySet()){
+            replenish(table, i, isIngredient);
+        }
+    }
+
+    /**
+     * Places an order for a single item if its amount is below its threshold
+     * @param table the Table of the Database containing the item
+     * @param id the ID of the item
+     * @param isIngredient true if table<Ingredient>
+     */
+    private void replenish(Item_Table<? extends Item> table, int id, boolean isIngredient) throws StorageAreaException {
+        //min amount of each ingredient
+        int threshold = table.getThreshold(id);
+
+        //get amount of free capacity
+        Item currentItem = table.getEntry(id);
+        AreaTotals totals = (isIngredient ? ingredientTotals : generalTotals).get(id);
+        int free = totals == null ? 0 : totals.free();
+        //get current amount stored
+        int amount = table.getAmount(id);
+        //if amount < threshold place an order
+        if(amount < threshold){
+
+            //add a warning if there isn't enough space to satisfy threshold requirement
+            if(amount+free < threshold){
+                inventoryWarnings.put(currentItem.getIID(), new Warnings(TEXT_RED, "Not enough space for "
+                        + currentItem.getName() + " ID: " + currentItem.getIID() +
+                        "; current capacity is " + (threshold-amount-free) + " to low!"
+                        + "\nFREE: " +free+" Amount: "+amount+" Threshold: "+threshold));
+            } else {//remove the warning if the situation is solved
+                if(inventoryWarnings.containsKey(currentItem.getIID())){
+                    inventoryWarnings.remove(currentItem.getIID());
+                    inventoryWarnings.put(currentItem.getIID(),
+                            new Warnings(TEXT_GREEN, "Not enough space for "
+                                    + currentItem.getName() + " ID: " + currentItem.getIID() +
+                                    "; current capacity is " + ((threshold-amount-free)) + " to low!"
+                                    + "\nFREE: " +free+" Amount: "+amount+" Threshold: "+threshold));
                 }
             }
-            //get current amount stored
-            int amount = table.getAmount((Integer) i);
-            //if amount < threshold place an order
-            Item currentItem = table.getEntry((Integer) i);
-            if(amount < threshold){
-
-                //add a warning if there isn't enough space to satisfy threshold requirement
-                if(amount+free < threshold){
-                    inventoryWarnings.put(currentItem, new Warnings(TEXT_RED, "Not enough space for "
-                            + currentItem.getName() + " ID: " + currentItem.getIID() +
-                            "; current capacity is " + (threshold-amount-free) + " to low!"
-                            + "\nFREE: " +free+" Amount: "+amount+" Threshold: "+threshold));
-                } else {//remove the warning if the situation is solved
-                    if(inventoryWarnings.containsKey(currentItem)){
-                        inventoryWarnings.remove(currentItem);
-                        inventoryWarnings.put(currentItem,
-                                new Warnings(TEXT_GREEN, "Not enough space for "
-                                        + currentItem.getName() + " ID: " + currentItem.getIID() +
-                                        "; current capacity is " + ((threshold-amount-free)) + " to low!"
-                                        + "\nFREE: " +free+" Amount: "+amount+" Threshold: "+threshold));
-                    }
-                }
 
-                //either case orders as much a fits
-                System.out.println("ordering: "+free);
-                addToStorage(currentItem, free);
-            }
+            //either case orders as much a fits
+            System.out.println("ordering: "+free);
+            addToStorage(currentItem, free);
         }
-
-
     }
 
 
@@ -510,6 +765,85 @@ public class InventoryManager extends TaskRequirements implements Runnable{
     }
 
 
+    /**
+     * Keeps the item indexes up to date when an area gets designated to a different item
+     */
+    private class AreaIndexer implements StorageAreaListener {
+
+        //the id of the observed area
+        private final int areaId;
+
+        public AreaIndexer(int areaId) {
+            this.areaId = areaId;
+        }
+
+        @Override
+        public void designationChanged(StorageArea<?> area, Item previous) {
+            unindex(areaId, area, previous);
+            index(areaId, area, area.getDesignated());
+        }
+
+        @Override
+        public void stockChanged(StorageArea<?> area, int diff) {
+            totalsOf(area, area.getDesignated()).add(0, diff);
+            if(area instanceof IngredientArea){
+                reindexExpiry(areaId, (IngredientArea) area);
+            }
+        }
+
+        @Override
+        public void spoiled(StorageArea<?> area) {
+            spoiledAreas.add(areaId);
+            //the flagged batches can't be taken anymore
+            reindexExpiry(areaId, (IngredientArea) area);
+        }
+
+        @Override
+        public void capacityChanged(StorageArea<?> area, int diff) {
+            if(area.getDesignated() != null){
+                totalsOf(area, area.getDesignated()).add(diff, 0);
+            }
+        }
+    }
+
+    /**
+     * Position of an IngredientArea inside the expiryIndex
+     * @param date the earliest expiry date inside the area
+     * @param areaId the id of the area
+     * @param iid the id of the item the area is designated to
+     */
+    private record ExpiryKey(LocalDate date, int areaId, int iid) {
+        private static final Comparator<ExpiryKey> ORDER = Comparator.comparing(ExpiryKey::date)
+                .thenComparingInt(ExpiryKey::areaId);
+    }
+
+    /**
+     * Capacity and stock summed up over all storage areas designated to one item
+     */
+    private static class AreaTotals {
+        private int capacity;
+        private int stock;
+
+        /**
+         * Changes the totals
+         * @param capacityDiff the change to the capacity
+         * @param stockDiff the change to the stock
+         */
+        public synchronized void add(int capacityDiff, int stockDiff){
+            capacity += capacityDiff;
+            stock += stockDiff;
+        }
+
+        /**
+         * Gets the free capacity
+         * @return capacity - stock
+         */
+        public synchronized int free(){
+            return capacity - stock;
+        }
+    }
+
+
     //getter
     public Map<Integer, GeneralArea> getGeneralAreas() {
         return generalAreas;
@@ -5,6 +5,10 @@ import java.util.Comparator;
 
 public class Ingredient extends Item implements Comparable<Ingredient>{
 
+    //order used by compareTo: expiryDate then productionDate
+    private static final Comparator<Ingredient> ORDER = Comparator.comparing(Ingredient::getExpiryDate)
+            .thenComparing(Ingredient::getProductionDate);
+
     //variables
     private final LocalDate expiryDate;
     private final LocalDate productionDate;
@@ -57,6 +61,8 @@ public class Ingredient extends Item implements Comparable<Ingredient>{
 
     /**
      * Flags an ingredient as spoiled
+     * only checked when it gets deposited, units already inside an IngredientArea
+     * have to be reported with IngredientArea.flagSpoiled()
      */
     public void spoil(){
         isGood = false;
@@ -75,8 +81,6 @@ public class Ingredient extends Item implements Comparable<Ingredient>{
     @Override
     public int compareTo(Ingredient o) {
         //return expiryDate.compareTo(o.getExpiryDate());
-        return Comparator.comparing(Ingredient::getExpiryDate)
-                .thenComparing(Ingredient::getProductionDate)
-                .compare(this, o);
+        return ORDER.compare(this, o);
     }
 }
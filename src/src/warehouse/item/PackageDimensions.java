@@ -30,6 +30,10 @@ public class PackageDimensions {
         return height;
     }
 
+    public int getVolume() {
+        return length * width * height;
+    }
+
     @Override
     public String toString() {
         return "dimensions: [" + length + ", " + width + ", " + height + ']';
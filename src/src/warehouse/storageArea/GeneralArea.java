@@ -23,18 +23,34 @@ public class GeneralArea extends StorageArea<Item> {
      */
     @Override
     public void deposit(Item item) throws StorageAreaException {
-        if (state.equals(AreaState.EMPTY)) {
-            designated = item;
-            state = AreaState.NORMAL;
-            //stock++;
-        } else if(state.equals(AreaState.FREEZE) || state.equals(AreaState.FLUSH)){
+        deposit(item, 1);
+    }
+
+    /**
+     * {@inheritdoc}
+     */
+    @Override
+    public synchronized void deposit(Item item, int amount) throws StorageAreaException {
+        if(amount < 0){
+            throw new StorageAreaException("Invalid amount: " + amount);
+        } else if(amount == 0){
+            return;
+        }
+
+        if(state.equals(AreaState.FREEZE) || state.equals(AreaState.FLUSH)){
             throw new StorageAreaException("StorageArea state: " + state);
-        }else if(!(designated.getIID() == item.getIID())){
+        }else if(!state.equals(AreaState.EMPTY) && !(designated.getIID() == item.getIID())){
             throw new StorageAreaException("Wrong Item Type!");
-        } else if(stock + 1 > capacity){
+        } else if(stock + amount > capacity){
             throw new StorageAreaException("StorageArea full!");
         }
-        stock++;
+
+        if (state.equals(AreaState.EMPTY)) {
+            designate(item);
+            state = AreaState.NORMAL;
+        }
+        stock += amount;
+        stockChanged(amount);
     }
 
     /**
@@ -42,13 +58,41 @@ public class GeneralArea extends StorageArea<Item> {
      */
     @Override
     public Item take() throws StorageAreaException {
-        if(stock == 0){
+        take(1);
+        return designated;
+    }
+
+    /**
+     * {@inheritdoc}
+     */
+    @Override
+    public synchronized void take(int amount) throws StorageAreaException {
+        if(amount < 0){
+            throw new StorageAreaException("Invalid amount: " + amount);
+        } else if(stock == 0 && amount > 0){
             throw new StorageAreaException("StorageArea empty!");
-        } else{
-            stock--;
-            postRemoveCheck();
-            return designated;
+        } else if(stock < amount){
+            throw new StorageAreaException("StorageArea only holds " + stock + " items!");
+        }
+        stock -= amount;
+        postRemoveCheck();
+        stockChanged(-amount);
+    }
+
+    /**
+     * Takes items, but at most as many as the StorageArea holds
+     * @param max the maximum amount of items taken
+     * @return the amount of items taken
+     */
+    public synchronized int takeUpTo(int max){
+        int taken = Math.min(max, stock);
+        if(taken <= 0){
+            return 0;
         }
+        stock -= taken;
+        postRemoveCheck();
+        stockChanged(-taken);
+        return taken;
     }
 
     /**
@@ -62,13 +106,13 @@ public class GeneralArea extends StorageArea<Item> {
     }
 
     @Override
-    public String toString() {
+    public synchronized String toString() {
         return String.format("StorageArea holding %3d of: %10s.", stock, designated);
     }
 
     //getter
     @Override
-    public int getStock() {
+    public synchronized int getStock() {
         return stock;
     }
 }
@@ -6,10 +6,27 @@ import src.warehouse.item.Ingredient;
 import java.time.LocalDate;
 import java.util.*;
 
+/**
+ * StorageArea for Ingredients (can spoil)
+ * Ingredients are stored in batches of units sharing expiryDate, productionDate and productionLot,
+ * the units of a batch share the state (isGood) of the first unit deposited into it.
+ * Spoiled units have to be reported with flagSpoiled(), their batches can't be taken anymore
+ * and get removed by the daily check
+ */
 public class IngredientArea extends StorageArea<Ingredient>{
 
-    //the Ingredients inside this IngredientArea
-    private final SortedSet<SetEntry> stock = new TreeSet<>();
+    //the batches inside this IngredientArea ordered by expiry date (FEFO) and age of the batch (FIFO)
+    private final NavigableSet<Batch> stock = new TreeSet<>(Batch.ORDER);
+    //the batches which can still receive deposits, by their lot
+    private final Map<LotKey, Batch> openBatches = new HashMap<>();
+    //the batches flagged as spoiled, they are no longer in stock and get removed by the next daily check
+    private final Set<Batch> flagged = new HashSet<>();
+    //the amount of Ingredients over all batches, including the flagged ones
+    private int amount;
+    //the amount of Ingredients in the flagged batches
+    private int spoiled;
+    //used to order batches with the same dates by their creation
+    private long batchNr;
 
     //constructor 1
     public IngredientArea(Ingredient designated, int capacity) {
@@ -22,66 +39,221 @@ public class IngredientArea extends StorageArea<Ingredient>{
     }
 
     /**
-     * Removes all items that have expired as of now, form the StorageArea
+     * Removes all items that have expired as of now and all flagged as spoiled, form the StorageArea
+     * only the expired batches at the front and the flagged batches get visited
      * @return the amount of Ingredients that hae expired
      */
-    public int dalyCheck(){
+    public synchronized int dalyCheck(){
         int remove = 0;
-        List<SetEntry> toDelete = new ArrayList<>();
-        for(SetEntry i : stock){
-            if(!i.getIngredient().getExpiryDate().isAfter(LocalDate.now()) || !i.getIngredient().isGood()){
-                toDelete.add(i);
-                remove++;
-            }
+        //spoiled batches
+        for(Batch i : flagged){
+            remove += i.count;
+        }
+        flagged.clear();
+        spoiled = 0;
+        //expired batches, the set is ordered by expiry date so they are all at the front
+        LocalDate today = LocalDate.now();
+        while(!stock.isEmpty() && !stock.first().expiryDate.isAfter(today)){
+            Batch i = stock.pollFirst();
+            close(i);
+            remove += i.count;
         }
-        stock.removeAll(toDelete);
+        amount -= remove;
+        postRemoveCheck();
+        stockChanged(-remove);
         return remove;
     }
 
+    /**
+     * Flags the batches of the lot a unit belongs to as spoiled, so they get removed by the next daily check
+     * the open batch of the lot and the closed ones (e.g. opened after an earlier flag) all get flagged,
+     * the state is kept by the area, the Ingredient itself is left unchanged (it may be shared)
+     * @param item a unit of the lot in question
+     * @return true if a batch of the lot was found
+     */
+    public synchronized boolean flagSpoiled(Ingredient item){
+        LotKey lot = new LotKey(item);
+        List<Batch> found = new ArrayList<>();
+        for(Batch batch : stock){
+            if(batch.lot.equals(lot)){
+                found.add(batch);
+            }
+        }
+        if(found.isEmpty()){
+            return false;
+        }
+        for(Batch batch : found){
+            stock.remove(batch);
+            flag(batch);
+        }
+        if(listener != null){
+            listener.spoiled(this);
+        }
+        return true;
+    }
+
+    /**
+     * Checks if there are batches flagged as spoiled
+     * @return true if the next daily check has spoiled batches to remove
+     */
+    public synchronized boolean hasSpoiled(){
+        return !flagged.isEmpty();
+    }
+
 
     /**
      * {@inheritdoc}
      */
     @Override
     public void deposit(Ingredient item) throws StorageAreaException {
-        if (state.equals(AreaState.EMPTY)) {
-            designated = item;
-            state = AreaState.NORMAL;
-            //stock.add(item);
-        } else if(state.equals(AreaState.FREEZE) || state.equals(AreaState.FLUSH)){
+        deposit(item, 1);
+    }
+
+    /**
+     * {@inheritdoc}
+     */
+    @Override
+    public synchronized void deposit(Ingredient item, int amount) throws StorageAreaException {
+        if(amount < 0){
+            throw new StorageAreaException("Invalid amount: " + amount);
+        } else if(amount == 0){
+            return;
+        }
+
+        if(state.equals(AreaState.FREEZE) || state.equals(AreaState.FLUSH)){
             throw new StorageAreaException("StorageArea state: " + state);
-        }else if(!(item.getIID() == designated.getIID())){
+        }else if(!state.equals(AreaState.EMPTY) && !(item.getIID() == designated.getIID())){
             throw new StorageAreaException("Wrong Item Type!");
-        } else if(stock.size() +1 > capacity) {
+        } else if(this.amount + amount > capacity) {
             throw new StorageAreaException("StorageArea full!");
         }
 
-        stock.add(new SetEntry(String.valueOf(System.nanoTime()), item));
+        if (state.equals(AreaState.EMPTY)) {
+            designate(item);
+            state = AreaState.NORMAL;
+        }
+
+        //add to the batch of the same lot if there is one, otherwise open a new one
+        LotKey key = new LotKey(item);
+        Batch batch = openBatches.get(key);
+        if(batch != null && batch.sample.isGood() && item.isGood()){
+            batch.count += amount;
+        } else {
+            batch = new Batch(item, amount, batchNr++);
+            if(item.isGood()){
+                stock.add(batch);
+                openBatches.put(key, batch);
+            } else {
+                flag(batch);
+            }
+        }
+        this.amount += amount;
+        stockChanged(amount);
+        if(!item.isGood() && listener != null){
+            listener.spoiled(this);
+        }
     }
 
     /**
      * {@inheritdoc}
      */
     @Override
-    public Ingredient take() throws StorageAreaException {
+    public synchronized Ingredient take() throws StorageAreaException {
         if(stock.isEmpty()){
             throw new StorageAreaException("StorageArea empty!");
         } else{
 
-            SetEntry temp = stock.first();
-            stock.remove(temp);
+            Batch first = stock.first();
+            takeFrom(first, 1);
             postRemoveCheck();
-            return temp.getIngredient();
+            stockChanged(-1);
+            return first.sample;
+
+        }
+    }
+
+    /**
+     * {@inheritdoc}
+     */
+    @Override
+    public synchronized void take(int amount) throws StorageAreaException {
+        if(amount < 0){
+            throw new StorageAreaException("Invalid amount: " + amount);
+        } else if(stock.isEmpty() && amount > 0){
+            throw new StorageAreaException("StorageArea empty!");
+        } else if(this.amount - spoiled < amount){
+            throw new StorageAreaException("StorageArea only holds " + (this.amount - spoiled) + " good items!");
+        }
+        int taken = amount;
+        while(amount > 0){
+            Batch first = stock.first();
+            amount -= takeFrom(first, Math.min(amount, first.count));
+        }
+        postRemoveCheck();
+        stockChanged(-taken);
+    }
+
+    /**
+     * Takes Ingredients in order of their expiry date, but only the ones expiring on or before a given date
+     * @param limit the latest expiry date taken (null to take regardless of date)
+     * @param max the maximum amount of Ingredients taken
+     * @return the amount of Ingredients taken
+     */
+    public synchronized int takeUntil(LocalDate limit, int max){
+        int taken = 0;
+        while(taken < max && !stock.isEmpty()){
+            Batch first = stock.first();
+            if(limit != null && first.expiryDate.isAfter(limit)){
+                break;
+            }
+            taken += takeFrom(first, Math.min(max - taken, first.count));
+        }
+        postRemoveCheck();
+        stockChanged(-taken);
+        return taken;
+    }
+
+    /**
+     * Takes units from a batch and drops the batch once it is empty
+     * @param batch the batch in question
+     * @param units the amount of units taken (at most the count of the batch)
+     * @return the amount of units taken
+     */
+    private int takeFrom(Batch batch, int units){
+        batch.count -= units;
+        amount -= units;
+        if(batch.count == 0){
+            stock.remove(batch);
+            close(batch);
+        }
+        return units;
+    }
 
+    /**
+     * Adds a batch to the flagged ones, it has to be out of stock already so its units can't be taken anymore
+     * @param batch the batch in question
+     */
+    private void flag(Batch batch){
+        close(batch);
+        if(flagged.add(batch)){
+            spoiled += batch.count;
         }
     }
 
     /**
-     * Shows the earliest Expiry Date present in the Offers StorageArea
-     * @return the Date in question
+     * Stops a batch from receiving further deposits
+     * @param batch the batch in question
      */
-    public LocalDate peakAtFirst(){
-        return stock.first().getIngredient().getExpiryDate();
+    private void close(Batch batch){
+        openBatches.remove(batch.lot, batch);
+    }
+
+    /**
+     * Shows the earliest Expiry Date present in the Offers StorageArea, batches flagged as spoiled don't count
+     * @return the Date in question (null if there are no good Ingredients)
+     */
+    public synchronized LocalDate peakAtFirst(){
+        return stock.isEmpty() ? null : stock.first().expiryDate;
     }
 
     /**
@@ -89,7 +261,7 @@ public class IngredientArea extends StorageArea<Ingredient>{
      */
     @Override
     public void postRemoveCheck() {
-        if(stock.isEmpty()){
+        if(stock.isEmpty() && flagged.isEmpty()){
             state = AreaState.EMPTY;
         }
     }
@@ -98,15 +270,16 @@ public class IngredientArea extends StorageArea<Ingredient>{
      * {@inheritdoc}
      */
     @Override
-    public String toString() {
+    public synchronized String toString() {
         StringBuilder sB = new StringBuilder();
-        sB.append(String.format("StorageArea holding %3d of: %10s:\n", stock.size(), designated.hideDetails()));
+        sB.append(String.format("StorageArea holding %3d of: %10s:\n", amount, designated.hideDetails()));
 
 
-        for(SetEntry i : stock){
-            sB.append(String.format("Expiration date %10s\t",i.getIngredient().getExpiryDate()));
-            sB.append(String.format("Production date %10s\t",i.getIngredient().getProductionDate()));
-            sB.append(String.format("Production lot %10s\n",i.getIngredient().getProductionLot()));
+        for(Batch i : stock){
+            sB.append(String.format("Expiration date %10s\t", i.expiryDate));
+            sB.append(String.format("Production date %10s\t", i.productionDate));
+            sB.append(String.format("Production lot %10s\t", i.sample.getProductionLot()));
+            sB.append(String.format("Amount %5d\n", i.count));
         }
 
         return sB.toString();
@@ -118,46 +291,53 @@ public class IngredientArea extends StorageArea<Ingredient>{
      * @return the amount of items in stock
      */
     @Override
-    public int getStock(){
-        return stock.size();
+    public synchronized int getStock(){
+        return amount;
     }
 
     /**
-     * Internal Class used for the sored set to allow duplicates
+     * Pseudo getter shows how many batches are in stock
+     * @return the amount of batches in stock, including the flagged ones
      */
-    private class SetEntry implements Comparable<SetEntry>{
+    public synchronized int getBatches(){
+        return stock.size() + flagged.size();
+    }
 
-        private String UID;
-        private Ingredient ingredient;
+    /**
+     * Internal Class holding a number of units of the same lot
+     */
+    private static class Batch {
 
-        public SetEntry(String UID, Ingredient ingredient) {
-            this.UID = UID;
-            this.ingredient = ingredient;
-        }
+        //order of the batches: expiryDate, productionDate, creation
+        private static final Comparator<Batch> ORDER = Comparator.comparing((Batch b) -> b.expiryDate)
+                .thenComparing(b -> b.productionDate)
+                .thenComparingLong(b -> b.nr);
 
-        //getters
-        public String getUID() {
-            return UID;
-        }
+        private final LocalDate expiryDate;
+        private final LocalDate productionDate;
+        private final LotKey lot;
+        private final long nr;
+        //the first unit deposited, represents all units of the batch
+        private final Ingredient sample;
+        private int count;
 
-        public Ingredient getIngredient() {
-            return ingredient;
+        public Batch(Ingredient sample, int count, long nr) {
+            this.expiryDate = sample.getExpiryDate();
+            this.productionDate = sample.getProductionDate();
+            this.lot = new LotKey(sample);
+            this.sample = sample;
+            this.count = count;
+            this.nr = nr;
         }
+    }
 
-        //methods for sorting by field usd for compareTo
-        private LocalDate sort_1st(){
-            return ingredient.getExpiryDate();
-        }
-        private LocalDate sort_2nd(){
-            return ingredient.getProductionDate();
-        }
+    /**
+     * Internal Class identifying the lot of an Ingredient
+     */
+    private record LotKey(LocalDate expiryDate, LocalDate productionDate, String productionLot) {
 
-        @Override
-        public int compareTo(SetEntry o) {
-            return Comparator.comparing(SetEntry::sort_1st)
-                    .thenComparing(SetEntry::sort_2nd)
-                    .thenComparing(SetEntry::getUID)
-                    .compare(this, o);
+        public LotKey(Ingredient ingredient) {
+            this(ingredient.getExpiryDate(), ingredient.getProductionDate(), ingredient.getProductionLot());
         }
     }
 }
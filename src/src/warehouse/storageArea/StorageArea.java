@@ -3,11 +3,20 @@ package src.warehouse.storageArea;
 import src.exceptions.StorageAreaException;
 import src.warehouse.item.Item;
 
+/**
+ * Base class of the StorageAreas
+ * all operations changing a StorageArea lock on the area itself,
+ * so different areas can be used by different threads at the same time
+ * @param <T> the type of Item stored
+ */
 public abstract class StorageArea<T extends Item> {
 
-    protected T designated;
-    protected int capacity;
-    protected AreaState state;
+    protected volatile T designated;
+    protected volatile int capacity;
+    protected volatile AreaState state;
+
+    //gets notified about changes of the StorageArea (can be null)
+    protected StorageAreaListener listener;
 
     /**
      * Class constructor when providing a Type of Item and a capacity.
@@ -40,16 +49,54 @@ public abstract class StorageArea<T extends Item> {
      */
     public abstract T take() throws StorageAreaException;
 
+    /**
+     * Adds multiple items of the same type to the StorageArea if possible
+     * either all of them get added or none
+     * @param item the Item in question
+     * @param amount the amount of the Item
+     */
+    public abstract void deposit(T item, int amount) throws StorageAreaException;
+
+    /**
+     * Retrieves multiple items from StorageArea, if they are ingredients the ones with the earliest expiryDates
+     * either all of them get taken or none
+     * @param amount the amount of items
+     */
+    public abstract void take(int amount) throws StorageAreaException;
+
     /**
      * Check if a StorageArea was emptied after a removal
      */
     public abstract void postRemoveCheck();
 
+    /**
+     * Designates the StorageArea to a type of item and notifies the listener if the type changed
+     * @param item the type of item for which the StorageArea is reserved from now on
+     */
+    protected void designate(T item){
+        T previous = designated;
+        designated = item;
+        boolean changed = (previous == null || item == null) ? previous != item : previous.getIID() != item.getIID();
+        if(listener != null && changed){
+            listener.designationChanged(this, previous);
+        }
+    }
+
+    /**
+     * Notifies the listener about a change of the stock
+     * @param diff the change to the stock
+     */
+    protected void stockChanged(int diff){
+        if(listener != null && diff != 0){
+            listener.stockChanged(this, diff);
+        }
+    }
+
     /**
      * Check if a StorageArea cam be deleted
      * @return true if possible
      */
-    public boolean removable(){
+    public synchronized boolean removable(){
         //return state.equals(AreaState.EMPTY) ? true : false;
         return state.equals(AreaState.EMPTY);
     }
@@ -58,7 +105,7 @@ public abstract class StorageArea<T extends Item> {
      * Set the StorageArea to the FREEZE state
      * Returns false if AreaState is FREE
      */
-    public boolean setToFreeze() {
+    public synchronized boolean setToFreeze() {
         if(state.equals(AreaState.EMPTY)){
             return false;
         }
@@ -70,7 +117,7 @@ public abstract class StorageArea<T extends Item> {
      * Set the StorageArea to the FLUSH state
      * Returns false if AreaState is EMPTY
      */
-    public boolean setToFlush(){
+    public synchronized boolean setToFlush(){
         if(state.equals(AreaState.EMPTY)){
             return false;
         }
@@ -82,7 +129,7 @@ public abstract class StorageArea<T extends Item> {
      * Set the StorageArea to the NORMAL state
      * Returns false if AreaState is EMPTY
      */
-    public boolean setToNormal(){
+    public synchronized boolean setToNormal(){
         if(state.equals(AreaState.EMPTY)){
             return false;
         }
@@ -95,22 +142,30 @@ public abstract class StorageArea<T extends Item> {
         return designated;
     }
 
-    public void setDesignated(T designated) {
-        this.designated = designated;
+    public synchronized void setDesignated(T designated) {
+        designate(designated);
     }
 
     public int getCapacity() {
         return capacity;
     }
 
-    public void setCapacity(int capacity) {
+    public synchronized void setCapacity(int capacity) {
+        int diff = capacity - this.capacity;
         this.capacity = capacity;
+        if(listener != null && diff != 0){
+            listener.capacityChanged(this, diff);
+        }
     }
 
     public AreaState getState() {
         return state;
     }
 
+    public void setListener(StorageAreaListener listener) {
+        this.listener = listener;
+    }
+
     abstract public int getStock();
 
     /**
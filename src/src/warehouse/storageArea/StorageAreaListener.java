@@ -0,0 +1,38 @@
+package src.warehouse.storageArea;
+
+import src.warehouse.item.Item;
+
+/**
+ * Gets notified about changes of a StorageArea
+ * used by the InventoryManager to keep its indexes up to date
+ */
+public interface StorageAreaListener {
+
+    /**
+     * Called after a StorageArea got designated to a different type of item
+     * @param area the StorageArea in question
+     * @param previous the item it was designated to before (can be null)
+     */
+    void designationChanged(StorageArea<?> area, Item previous);
+
+    /**
+     * Called after items got added to or removed from a StorageArea
+     * @param area the StorageArea in question
+     * @param diff the change to the stock
+     */
+    void stockChanged(StorageArea<?> area, int diff);
+
+    /**
+     * Called after the capacity of a StorageArea changed
+     * @param area the StorageArea in question
+     * @param diff the change to the capacity
+     */
+    void capacityChanged(StorageArea<?> area, int diff);
+
+    /**
+     * Called after items inside a StorageArea got flagged as spoiled,
+     * they get removed by the next daily check
+     * @param area the StorageArea in question
+     */
+    void spoiled(StorageArea<?> area);
+}
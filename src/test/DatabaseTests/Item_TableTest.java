@@ -7,6 +7,11 @@ import src.database.Item_Table;
 import src.warehouse.item.Ingredient;
 
 import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -93,6 +98,51 @@ class Item_TableTest {
 
     }
 
+    /**
+     * Tests if the name index follows add, update and remove
+     */
+    @Test
+    void findId() {
+        //unknown name
+        assertNull(testTable.findId("ID.."));
+
+        //added entry can be found by name
+        testTable.add(testIngredient(1));
+        assertEquals(1, testTable.findId("ID.."));
+
+        //renaming via update moves the index entry
+        Ingredient renamed = new Ingredient(1,"Renamed", "description...", 1.1, 1.2,
+                LocalDate.now(), LocalDate.now().minusDays(7), "PL.......");
+        assertTrue(testTable.update(renamed));
+        assertNull(testTable.findId("ID.."));
+        assertEquals(1, testTable.findId("Renamed"));
+
+        //removed entry can no longer be found
+        assertTrue(testTable.remove(1));
+        assertNull(testTable.findId("Renamed"));
+    }
+
+    /**
+     * Tests if a duplicate name doesn't take over the index entry of the one added first
+     */
+    @Test
+    void findIdDuplicateName() {
+        testTable.add(testIngredient(1));
+        testTable.add(testIngredient(2));
+        assertEquals(1, testTable.findId("ID.."));
+
+        //removing or renaming the duplicate leaves the index entry alone
+        Ingredient renamed = new Ingredient(2,"Renamed", "description...", 2.1, 2.2,
+                LocalDate.now(), LocalDate.now().minusDays(7), "PL.......");
+        assertTrue(testTable.update(renamed));
+        assertEquals(1, testTable.findId("ID.."));
+        assertTrue(testTable.remove(2));
+        assertEquals(1, testTable.findId("ID.."));
+
+        assertTrue(testTable.remove(1));
+        assertNull(testTable.findId("ID.."));
+    }
+
     /**
      * Tests if size get counted as intended
      */
@@ -143,6 +193,66 @@ class Item_TableTest {
     }
 
 
+    /**
+     * Tests if reserving only succeeds when enough is available
+     */
+    @Test
+    void reserveRelease() {
+        testTable.add(testIngredient(1));
+        testTable.setAmount(1, 10);
+
+        assertTrue(testTable.reserve(1, 6));
+        assertEquals(4, testTable.getAmount(1));
+        assertFalse(testTable.reserve(1, 5));
+        assertEquals(4, testTable.getAmount(1));
+
+        assertTrue(testTable.release(1, 6));
+        assertEquals(10, testTable.getAmount(1));
+
+        //non-existing entry
+        assertFalse(testTable.reserve(2, 1));
+    }
+
+    /**
+     * Tests that no updates get lost when 32 threads change the same entry at once
+     */
+    @Test
+    void concurrentUpdates() throws InterruptedException {
+        int threads = 32;
+        int runs = 10000;
+        int stock = threads * runs / 2;
+        testTable.add(testIngredient(1));
+        testTable.setAmount(1, stock);
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger reserved = new AtomicInteger();
+        for(int t = 0; t < threads; t++){
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for(int i = 0; i < runs; i++){
+                    testTable.setAmount(1, 1);
+                    testTable.setThreshold(1, 1);
+                    if(testTable.reserve(1, 2)){
+                        reserved.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        //every change must be accounted for and stock can never be overbooked
+        assertEquals(threads * runs, testTable.getThreshold(1));
+        assertEquals(stock + threads * runs - 2 * reserved.get(), testTable.getAmount(1));
+        assertTrue(testTable.getAmount(1) >= 0);
+    }
+
     /**
      * Tests the getter
      */
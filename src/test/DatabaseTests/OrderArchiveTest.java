@@ -0,0 +1,144 @@
+package test.DatabaseTests;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import src.database.OrderArchive;
+import src.database.Order_Table;
+import src.shipping.order.Address;
+import src.shipping.order.Continent;
+import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    /**
+     * Generates test Order with only an ID
+     * @param id the id of the test Order
+     * @param status the status of the test Order
+     * @return the Order generated
+     */
+    private Order testOrder(int id, OrderStatus status){
+        return new Order(id, new Address(Continent.EU, id, "demo address " + id), status, false);
+    }
+
+    /**
+     * Test if archived orders can be read back, also after reopening the archive
+     */
+    @Test
+    void archiveAndReopen() throws IOException {
+        //small segments so the archive has to roll over
+        try (OrderArchive archive = new OrderArchive(directory, 1024)) {
+            for(int i = 0; i < 100; i++){
+                archive.archive(testOrder(i, OrderStatus.DELIVERED));
+            }
+            assertEquals(100, archive.size());
+            assertTrue(archive.segments() > 1);
+            assertEquals(42, archive.get(42).getOID());
+            assertNull(archive.get(100));
+        }
+
+        try (OrderArchive archive = new OrderArchive(directory, 1024)) {
+            assertEquals(100, archive.size());
+            Order order = archive.get(99);
+            assertEquals(OrderStatus.DELIVERED, order.getStatus());
+            assertEquals(Continent.EU, order.getAddress().getRegion());
+
+            //keeps appending after reopening
+            archive.archive(testOrder(100, OrderStatus.DELIVERED));
+            assertEquals(100, archive.get(100).getOID());
+        }
+    }
+
+    /**
+     * Test if all fields of an Order survive the record format, older versions are read and unknown ones refused
+     */
+    @Test
+    void recordFormat() throws IOException {
+        Order order = new Order(7, new Address(null, 3, "demo address"), OrderStatus.DELIVERED, true);
+        order.setWeight(1.5);
+        order.setVolume(2500);
+        try (OrderArchive archive = new OrderArchive(directory)) {
+            archive.archive(order);
+            archive.archive(new Order(8, null, OrderStatus.PAID, false));
+
+            Order read = archive.get(7);
+            assertEquals(7, read.getOID());
+            assertEquals(OrderStatus.DELIVERED, read.getStatus());
+            assertTrue(read.isWormholeDelivery());
+            assertEquals(1.5, read.getWeight());
+            assertEquals(2500, read.getVolume());
+            assertNull(read.getAddress().getRegion());
+            assertEquals(3, read.getAddress().getArea());
+            assertEquals("demo address", read.getAddress().getAddress());
+            assertNull(archive.get(8).getAddress());
+        }
+
+        //a record of version 1, written before orders had a weight and volume
+        ByteArrayOutputStream record = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(record)) {
+            out.writeByte(1);
+            out.writeUTF(OrderStatus.DELIVERED.name());
+            out.writeBoolean(false);
+            out.writeBoolean(false);
+        }
+        Path versions = directory.resolve("versions");
+        Files.createDirectories(versions);
+        try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(versions.resolve("orders-000000.seg")))) {
+            //a record written by a later version of the format
+            out.writeInt(9);
+            out.writeInt(1);
+            out.writeByte(99);
+            //the version 1 record
+            out.writeInt(10);
+            out.writeInt(record.size());
+            out.write(record.toByteArray());
+        }
+        try (OrderArchive archive = new OrderArchive(versions)) {
+            assertTrue(archive.contains(9));
+            assertThrows(IOException.class, () -> archive.get(9));
+            Order read = archive.get(10);
+            assertEquals(OrderStatus.DELIVERED, read.getStatus());
+            assertEquals(0, read.getWeight());
+            assertNull(read.getAddress());
+        }
+    }
+
+    /**
+     * Test if only delivered orders past their retention leave the Order_Table
+     */
+    @Test
+    void archiveDelivered() throws IOException {
+        Order_Table table = new Order_Table();
+        for(int i = 0; i < 10; i++){
+            table.add(testOrder(i, OrderStatus.IN_DELIVERY));
+        }
+        for(int i = 0; i < 5; i++){
+            table.get(i).setStatus(OrderStatus.DELIVERED);
+        }
+
+        try (OrderArchive archive = new OrderArchive(directory)) {
+            assertEquals(0, table.archiveDelivered(archive, Duration.ofDays(1)));
+            assertEquals(10, table.size());
+
+            assertEquals(5, table.archiveDelivered(archive, Duration.ZERO));
+            assertEquals(5, table.size());
+            assertEquals(0, table.count(OrderStatus.DELIVERED));
+            assertEquals(5, table.count(OrderStatus.IN_DELIVERY));
+            assertEquals(5, archive.size());
+            assertTrue(archive.contains(4));
+            assertFalse(archive.contains(5));
+        }
+    }
+}
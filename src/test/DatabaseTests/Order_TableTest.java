@@ -0,0 +1,123 @@
+package test.DatabaseTests;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import src.database.Order_Table;
+import src.shipping.order.Address;
+import src.shipping.order.Continent;
+import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class Order_TableTest {
+
+    private Order_Table testTable;
+
+    @BeforeEach
+    void setUp() {
+        testTable = new Order_Table();
+    }
+
+    /**
+     * Generates test Order with only an ID
+     * @param id the id of the test Order
+     * @param status the status of the test Order
+     * @return the Order generated
+     */
+    private Order testOrder(int id, OrderStatus status){
+        return new Order(id, new Address(Continent.EU, id, "demo address " + id), status, false);
+    }
+
+    /**
+     * Test if adding, updating and removing keeps the status index in sync
+     */
+    @Test
+    void addUpdateRemove() {
+        assertTrue(testTable.add(testOrder(1, OrderStatus.PAID)));
+        assertFalse(testTable.add(testOrder(1, OrderStatus.PAID)));
+        assertTrue(testTable.add(testOrder(2, OrderStatus.PACKAGED)));
+        assertEquals(2, testTable.size());
+        assertEquals(1, testTable.count(OrderStatus.PAID));
+        assertEquals(1, testTable.count(OrderStatus.PACKAGED));
+
+        assertTrue(testTable.update(testOrder(1, OrderStatus.PACKAGED)));
+        assertFalse(testTable.update(testOrder(3, OrderStatus.PACKAGED)));
+        assertEquals(0, testTable.count(OrderStatus.PAID));
+        assertEquals(2, testTable.getByStatus(OrderStatus.PACKAGED).size());
+
+        assertTrue(testTable.remove(2));
+        assertFalse(testTable.remove(2));
+        assertEquals(1, testTable.count(OrderStatus.PACKAGED));
+        assertEquals(1, testTable.getByStatus(OrderStatus.PACKAGED).get(0).getOID());
+    }
+
+    /**
+     * Test if status changes of the orders move them inside the index
+     */
+    @Test
+    void statusChanges() {
+        Order order = testOrder(1, OrderStatus.PAID);
+        testTable.add(order);
+
+        order.setStatus(OrderStatus.SCHEDULED);
+        assertEquals(0, testTable.count(OrderStatus.PAID));
+        assertEquals(1, testTable.count(OrderStatus.SCHEDULED));
+
+        assertTrue(testTable.transition(1, OrderStatus.SCHEDULED, OrderStatus.PACKAGED));
+        assertFalse(testTable.transition(1, OrderStatus.SCHEDULED, OrderStatus.PACKAGED));
+        assertFalse(testTable.transition(2, OrderStatus.SCHEDULED, OrderStatus.PACKAGED));
+        assertEquals(0, testTable.count(OrderStatus.SCHEDULED));
+        assertEquals(order, testTable.getByStatus(OrderStatus.PACKAGED).get(0));
+
+        //removed orders are no longer tracked
+        testTable.remove(1);
+        order.setStatus(OrderStatus.DELIVERED);
+        assertEquals(0, testTable.count(OrderStatus.DELIVERED));
+    }
+
+    /**
+     * Test concurrent transitions, every order can only be taken by one thread
+     */
+    @Test
+    void concurrentTransitions() throws InterruptedException {
+        int threads = 16;
+        int orders = 10000;
+        for(int i = 0; i < orders; i++){
+            testTable.add(testOrder(i, OrderStatus.PACKAGED));
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger taken = new AtomicInteger();
+        for(int t = 0; t < threads; t++){
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for(int i = 0; i < orders; i++){
+                    if(testTable.transition(i, OrderStatus.PACKAGED, OrderStatus.IN_DELIVERY)){
+                        taken.incrementAndGet();
+                        testTable.get(i).setStatus(OrderStatus.DELIVERED);
+                    }
+                }
+            });
+        }
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(orders, taken.get());
+        assertEquals(0, testTable.count(OrderStatus.PACKAGED));
+        assertEquals(0, testTable.count(OrderStatus.IN_DELIVERY));
+        assertEquals(orders, testTable.count(OrderStatus.DELIVERED));
+    }
+}
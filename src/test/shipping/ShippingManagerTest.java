@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import src.database.DemoDB;
 import src.exceptions.DroneException;
+import src.shipping.ExecutionMode;
 import src.shipping.ShippingManager;
 import src.shipping.deliverymethod.drones.CarrierDrone;
 import src.shipping.deliverymethod.drones.DeliveryDrone;
@@ -14,9 +15,13 @@ import src.shipping.order.Continent;
 import src.shipping.order.Order;
 import src.shipping.order.OrderStatus;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 import static java.lang.Thread.sleep;
 import static org.junit.jupiter.api.Assertions.*;
@@ -32,6 +37,7 @@ class ShippingManagerTest {
     CarrierDrone cd12;
     CarrierDrone cd21;
     CarrierDrone cd22;
+    ThreadPoolExecutor pool;
 
     @BeforeEach
     void setUp() throws DroneException {
@@ -81,8 +87,13 @@ class ShippingManagerTest {
     }
 
     @AfterEach
-    void tearDown() {
+    void tearDown() throws InterruptedException {
         testManager.terminate();
+        //the manager task has to stop, or it takes the orders of the next test
+        if(pool != null){
+            pool.shutdown();
+            assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+        }
     }
 
     /**
@@ -145,7 +156,7 @@ class ShippingManagerTest {
 
 
         //setup test pool
-        ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
         pool.execute(testManager);
 
         //wait for full delivery
@@ -172,6 +183,184 @@ class ShippingManagerTest {
 
     }
 
+    /**
+     * test if orders changing to PACKAGED after being added get shipped
+     */
+    @Test
+    void statusChange() {
+        DemoDB.getInstance().clearDB();
+        Address demo = new Address(Continent.EU, 1, "IN " + Continent.EU);
+        Order order = new Order(1000, demo, OrderStatus.SCHEDULED, true);
+        DemoDB.getInstance().add(order);
+        assertTrue(DemoDB.getInstance().getPackagedOrders().isEmpty());
+
+        pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        pool.execute(testManager);
+
+        order.setStatus(OrderStatus.PACKAGED);
+        try {
+            sleep(500);
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+
+        assertTrue(DemoDB.getInstance().getPackagedOrders().isEmpty());
+        assertEquals(OrderStatus.DELIVERED, order.getStatus());
+    }
+
+    /**
+     * test if PACKAGED orders get queued without blocking, even if the ShippingManager isn't taking them
+     * or the thread changing the status is interrupted, and that orders not fitting in the queue still get shipped
+     */
+    @Test
+    void packagedOverflow() {
+        DemoDB.getInstance().clearDB();
+        disC1.setMaxBatchWait(10000);
+        Address demo = new Address(Continent.NA, 1, "IN " + Continent.NA);
+
+        //an interrupted thread still queues the order and keeps its interrupt
+        Thread.currentThread().interrupt();
+        DemoDB.getInstance().add(new Order(10000, demo, OrderStatus.PACKAGED, false));
+        assertTrue(Thread.interrupted());
+        assertEquals(1, DemoDB.getInstance().getPackagedOrders().size());
+
+        //no ShippingManager running, the orders beyond the capacity don't fit in the queue
+        for(int i = 1; i < DemoDB.PACKAGED_CAPACITY + 10; i++){
+            DemoDB.getInstance().add(new Order(10000 + i, demo, OrderStatus.PACKAGED, false));
+        }
+        assertEquals(DemoDB.PACKAGED_CAPACITY, DemoDB.getInstance().getPackagedOrders().size());
+        assertEquals(DemoDB.PACKAGED_CAPACITY + 10, DemoDB.getInstance().getOrders().count(OrderStatus.PACKAGED));
+
+        pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        pool.execute(testManager);
+        assertTrue(waitFor(() -> DemoDB.getInstance().getOrders().count(OrderStatus.PACKAGED) == 0, 5000));
+        assertTrue(waitFor(() -> DemoDB.getInstance().getPackagedOrders().isEmpty(), 5000));
+        assertEquals(DemoDB.PACKAGED_CAPACITY + 10, disC1.getLoad());
+    }
+
+    /**
+     * test if grouped orders get sent once there are enough of them or the first one waited long enough
+     */
+    @Test
+    void flushPolicy() {
+        DemoDB.getInstance().clearDB();
+        testManager.setFlushPolicy(10, 1000);
+        List<Order> orders = new ArrayList<>();
+        Address demo = new Address(Continent.EU, 1, "IN " + Continent.EU);
+        for(int i = 0; i < 15; i++){
+            orders.add(new Order(3000 + i, demo, OrderStatus.PACKAGED, false));
+        }
+        pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        pool.execute(testManager);
+
+        //enough orders for a flush, they get sent right away
+        for(int i = 0; i < 10; i++){
+            DemoDB.getInstance().add(orders.get(i));
+        }
+        //well within the max wait, so only the flush size can have sent them
+        assertTrue(waitFor(() -> orders.subList(0, 10).stream().allMatch(o -> o.getStatus() == OrderStatus.DELIVERED), 800));
+
+        //not enough orders, they have to wait
+        for(int i = 10; i < 15; i++){
+            DemoDB.getInstance().add(orders.get(i));
+        }
+        assertTrue(waitFor(() -> testManager.getGroupedOrders().size() == 5, 800));
+        for(int i = 10; i < 15; i++){
+            assertNotEquals(OrderStatus.DELIVERED, orders.get(i).getStatus());
+        }
+
+        assertTrue(waitFor(() -> orders.stream().allMatch(o -> o.getStatus() == OrderStatus.DELIVERED), 5000));
+        assertEquals(0, testManager.getGroupedOrders().size());
+    }
+
+    /**
+     * test if orders get balanced between DistributionCenters serving the same continent
+     */
+    @Test
+    void routing() throws DroneException {
+        DemoDB.getInstance().clearDB();
+        DistributionCenter disC3 = new DistributionCenter(Continent.NA);
+        CarrierDrone cd31 = new CarrierDrone(1, disC3, null);
+        assignDeliveryDrone(cd31);
+        disC3.addCarrierDrone(cd31);
+        testManager.addDistributionCenter(disC3);
+
+        //keep the orders pending to see where they went
+        disC1.setMaxBatchWait(10000);
+        disC3.setMaxBatchWait(10000);
+        for(int i = 0; i < 40; i++){
+            Address demo = new Address(Continent.NA, 1, "IN " + Continent.NA);
+            DemoDB.getInstance().add(new Order(1000 + i, demo, OrderStatus.PACKAGED, false));
+        }
+
+        pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        pool.execute(testManager);
+        assertTrue(waitFor(() -> disC1.getPendingOrders().size() + disC3.getPendingOrders().size() == 40, 5000));
+
+        assertEquals(20, disC1.getPendingOrders().size());
+        assertEquals(20, disC3.getPendingOrders().size());
+        assertEquals(20, disC1.getLoad());
+        assertTrue(disC2.getPendingOrders().isEmpty());
+    }
+
+    /**
+     * test if more DistributionCenters than the old fixed pool size all get to run
+     */
+    @Test
+    void manyCenters() throws DroneException {
+        List<Order> orders = new ArrayList<>();
+        for(int i = 0; i < 50; i++){
+            DistributionCenter disC = new DistributionCenter(Continent.SA);
+            CarrierDrone cd = new CarrierDrone(i, disC, null);
+            cd.assignDrones(new DeliveryDrone(i, 5));
+            disC.addCarrierDrone(cd);
+            assertTrue(testManager.addDistributionCenter(disC));
+
+            Order order = new Order(5000 + i, new Address(Continent.SA, 1, "IN " + Continent.SA), OrderStatus.IN_DELIVERY, false);
+            orders.add(order);
+            disC.receiveOrders(List.of(order));
+        }
+
+        assertTrue(waitFor(() -> orders.stream().allMatch(o -> o.getStatus() == OrderStatus.DELIVERED), 5000));
+    }
+
+    /**
+     * test if a bounded pool refuses DistributionCenters it has no thread for
+     */
+    @Test
+    void boundedPool() {
+        ShippingManager bounded = new ShippingManager(ExecutionMode.BOUNDED_POOL, 2);
+        assertEquals(ExecutionMode.BOUNDED_POOL, bounded.getExecutionMode());
+        assertTrue(bounded.addDistributionCenter(new DistributionCenter(Continent.NA)));
+        assertTrue(bounded.addDistributionCenter(new DistributionCenter(Continent.AS)));
+        assertFalse(bounded.addDistributionCenter(new DistributionCenter(Continent.AF)));
+        assertEquals(2, bounded.getDistributionCenters().size());
+        bounded.terminate();
+        assertTrue(bounded.distributionCenterPoolShutdown());
+    }
+
+    /**
+     * Waits until a condition is met, checks it every 10ms
+     * @param condition the condition in question
+     * @param timeout max time waited in ms
+     * @return true if the condition was met before the timeout
+     */
+    static boolean waitFor(BooleanSupplier condition, long timeout){
+        long deadline = System.currentTimeMillis() + timeout;
+        while(!condition.getAsBoolean()){
+            if(System.currentTimeMillis() > deadline){
+                return false;
+            }
+            try {
+                sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return condition.getAsBoolean();
+            }
+        }
+        return true;
+    }
+
     /**
      * Adds specified amount of orders to each facility present in testing
      * @param sizeEach the amount of orders Added MAX 99
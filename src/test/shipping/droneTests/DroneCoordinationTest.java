@@ -4,6 +4,7 @@ import org.junit.jupiter.api.*;
 import src.exceptions.DroneException;
 import src.shipping.deliverymethod.drones.CarrierDrone;
 import src.shipping.deliverymethod.drones.DeliveryDrone;
+import src.shipping.deliverymethod.drones.Drone;
 import src.shipping.deliverymethod.drones.DroneCoordination;
 import src.shipping.ditributionCenter.DistributionCenter;
 import src.shipping.order.Address;
@@ -13,6 +14,8 @@ import src.shipping.order.OrderStatus;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -91,6 +94,31 @@ class DroneCoordinationTest {
 
     }
 
+    /**
+     * Loads 100k orders at once, every CarrierDrone gets the next slice of the orders
+     * @throws DroneException if a CarrierDrone gets loaded to much
+     */
+    @Test
+    void bulkLoading() throws DroneException {
+        orders = new ArrayList<>();
+        carrierDrones = new ArrayList<>();
+        generateOrders(100_000);
+        for(int i = 0; i < 1000; i++){
+            carrierDrones.add(new CarrierDrone(i, new DistributionCenter(Continent.RU), null));
+        }
+
+        DroneCoordination.carrierDronesHandling(carrierDrones, orders);
+
+        assertTrue(orders.isEmpty());
+        int next = 0;
+        for(CarrierDrone cd : carrierDrones){
+            assertEquals(cd.getCapacity(), cd.getOrders().size());
+            //orders keep their order
+            assertEquals(next, cd.getOrders().peekFirst().getOID());
+            next += cd.getCapacity();
+        }
+    }
+
     /**
      * Delivers all orders
      * @throws DroneException if any drone gets overfilled
@@ -121,6 +149,251 @@ class DroneCoordinationTest {
         }
     }
 
+    /**
+     * Without CarrierDrones no order can be delivered, all get deferred
+     * @throws DroneException if any drone gets overfilled
+     */
+    @Test
+    void completeHandlingWithoutCarriers() throws DroneException {
+        assertEquals(ORDERS, DroneCoordination.completeHandling(new ArrayList<>(), orders));
+        assertEquals(ORDERS, orders.size());
+    }
+
+    /**
+     * CarrierDrones without DeliveryDrones give their orders back, the other ones deliver them
+     * @throws DroneException if any drone gets overfilled
+     */
+    @Test
+    void completeHandlingWithoutDeliveryDrones() throws DroneException {
+        //only CarrierDrones without DeliveryDrones
+        List<CarrierDrone> empty = new ArrayList<>();
+        for(int i = 0; i < CARRIER_DRONES; i++){
+            empty.add(new CarrierDrone(i, new DistributionCenter(Continent.RU), null));
+        }
+        assertEquals(ORDERS, DroneCoordination.completeHandling(empty, orders));
+        assertEquals(0, orders.get(0).getOID());
+        for(CarrierDrone cd : empty){
+            assertTrue(cd.isDocking());
+            assertEquals(0, cd.getOrders().size());
+        }
+
+        //mixed with working ones everything gets delivered
+        empty.addAll(carrierDrones);
+        List<Order> all = new ArrayList<>(orders);
+        assertEquals(0, DroneCoordination.completeHandling(empty, orders));
+        for(Order order : all){
+            assertEquals(OrderStatus.DELIVERED, order.getStatus());
+        }
+    }
+
+    /**
+     * CarrierDrones that are all out delivering can't take new orders, they stay for the next call
+     * @throws DroneException if any drone gets overfilled
+     */
+    @Test
+    void completeHandlingSaturatedFleet() throws DroneException {
+        DroneCoordination.carrierDronesHandling(carrierDrones, orders);
+        for(CarrierDrone cd : carrierDrones){
+            assertFalse(cd.isDocking());
+        }
+        int waiting = orders.size();
+        assertTrue(waiting > 0);
+
+        assertEquals(waiting, DroneCoordination.completeHandling(carrierDrones, orders));
+        assertEquals(waiting, orders.size());
+    }
+
+    /**
+     * A failing CarrierDrone gets reported only once all flights are back,
+     * so the orders the other CarrierDrones gave back aren't lost
+     * @throws DroneException if any drone gets overfilled
+     */
+    @Test
+    void completeHandlingFailure() throws DroneException {
+        List<CarrierDrone> mixed = new ArrayList<>();
+        CarrierDrone failing = new CarrierDrone(0, new DistributionCenter(Continent.RU), null){
+            @Override
+            public void deliver() throws DroneException {
+                throw new DroneException("test failure");
+            }
+        };
+        CarrierDrone empty = new CarrierDrone(1, new DistributionCenter(Continent.RU), null);
+        mixed.add(failing);
+        mixed.add(empty);
+        mixed.add(carrierDrones.get(0));
+        orders = new ArrayList<>(orders.subList(0, 3 * failing.getCapacity()));
+        List<Order> all = new ArrayList<>(orders);
+
+        assertThrows(DroneException.class, () -> DroneCoordination.completeHandling(mixed, orders));
+        //the failing CarrierDrone keeps its orders, the one without DeliveryDrones gave them back
+        assertEquals(failing.getCapacity(), failing.getOrders().size());
+        assertEquals(all.subList(failing.getCapacity(), 2 * failing.getCapacity()), orders);
+        for(Order order : all.subList(2 * failing.getCapacity(), all.size())){
+            assertEquals(OrderStatus.DELIVERED, order.getStatus());
+        }
+    }
+
+    /**
+     * The DeliveryDrones of all CarrierDrones deliver on different threads at the same time
+     * @throws DroneException if any drone gets overfilled
+     */
+    @Test
+    void parallelDispatch() throws DroneException {
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        carrierDrones = new ArrayList<>();
+        generateCarrierDrones();
+        for(CarrierDrone cd : carrierDrones){
+            for(int i = 0; i < DELIVERY_DRONES; i++){
+                cd.assignDrones(new DeliveryDrone(i, DELIVERY_DRONES_CAPACITY){
+                    @Override
+                    public List<Order> flyRoute() {
+                        threads.add(Thread.currentThread());
+                        return super.flyRoute();
+                    }
+                });
+            }
+        }
+
+        List<Order> all = new ArrayList<>(orders);
+        assertEquals(0, DroneCoordination.completeHandling(carrierDrones, orders));
+        for(Order order : all){
+            assertEquals(OrderStatus.DELIVERED, order.getStatus());
+        }
+        assertTrue(threads.size() > 1);
+        assertFalse(threads.contains(Thread.currentThread()));
+    }
+
+    /**
+     * Grouped orders of the same area are next to each other and keep their order,
+     * so the DeliveryDrones need fewer trips
+     * @throws DroneException if any drone gets overfilled
+     */
+    @Test
+    void groupByArea() throws DroneException {
+        orders = new ArrayList<>();
+        for(int i = 0; i < ORDERS; i++){
+            orders.add(new Order(i, new Address(Continent.EU, i % 10, "Demo Street " + i), OrderStatus.IN_DELIVERY, false));
+        }
+        List<Order> grouped = new ArrayList<>(orders);
+        DroneCoordination.groupByArea(grouped);
+        for(int i = 1; i < grouped.size(); i++){
+            Order previous = grouped.get(i - 1);
+            Order next = grouped.get(i);
+            assertTrue(previous.getAddress().getArea() <= next.getAddress().getArea());
+            if(previous.getAddress().sameArea(next.getAddress())){
+                assertTrue(previous.getOID() < next.getOID());
+            }
+        }
+
+        //every DeliveryDrone load covers a single area, besides the ones at the border of two areas
+        Drone.setLogging(false);
+        DroneCoordination.completeHandling(carrierDrones, orders);
+        Drone.setLogging(true);
+        int trips = 0;
+        for(CarrierDrone cd : carrierDrones){
+            for(DeliveryDrone dd : cd.getDeliveryDrones()){
+                trips += dd.getTrips();
+            }
+        }
+        assertTrue(trips < ORDERS / DELIVERY_DRONES_CAPACITY + 10);
+    }
+
+    /**
+     * The packer fills the drones by weight and volume,
+     * first-fit decreasing needs fewer drones than loading the orders in their order
+     * @throws DroneException if any drone gets overfilled
+     */
+    @Test
+    void pack() throws DroneException {
+        //sizes that leave gaps when loaded in order: 6, 5, 4 ... per drone of weight 10
+        double[] weights = {6, 5, 4, 5, 6, 4, 5, 5, 4, 6};
+        orders = new ArrayList<>();
+        for(int i = 0; i < weights.length; i++){
+            Order order = new Order(i, new Address(Continent.EU, 1, "Demo Street " + i), OrderStatus.IN_DELIVERY, false);
+            order.setWeight(weights[i]);
+            order.setVolume(1);
+            orders.add(order);
+        }
+        List<DeliveryDrone> drones = new ArrayList<>();
+        for(int i = 0; i < 10; i++){
+            drones.add(new DeliveryDrone(i, DELIVERY_DRONES_CAPACITY, 10, 5));
+        }
+        List<Order> all = new ArrayList<>(orders);
+
+        assertEquals(weights.length, DroneCoordination.pack(drones, orders));
+        assertTrue(orders.isEmpty());
+        int used = 0;
+        int loaded = 0;
+        for(DeliveryDrone dd : drones){
+            assertTrue(dd.getLoadWeight() <= dd.getMaxWeight());
+            assertTrue(dd.getLoadVolume() <= dd.getMaxVolume());
+            if(!dd.getOrders().isEmpty()){
+                used++;
+                loaded += dd.getOrders().size();
+            }
+        }
+        assertEquals(all.size(), loaded);
+        //50 kg on drones of 10 kg: 6+4 three times and 5+5 twice
+        assertEquals(5, used);
+
+        //orders too heavy or too large for the drones stay in the list in their order
+        orders = new ArrayList<>();
+        Order heavy = new Order(100, new Address(Continent.EU, 1, "Demo Street"), OrderStatus.IN_DELIVERY, false);
+        heavy.setWeight(11);
+        Order large = new Order(101, new Address(Continent.EU, 1, "Demo Street"), OrderStatus.IN_DELIVERY, false);
+        large.setVolume(6);
+        orders.add(heavy);
+        orders.add(large);
+        List<DeliveryDrone> empty = List.of(new DeliveryDrone(20, DELIVERY_DRONES_CAPACITY, 10, 5));
+        assertEquals(0, DroneCoordination.pack(empty, orders));
+        assertEquals(List.of(heavy, large), orders);
+    }
+
+    /**
+     * Orders too heavy or too large for every drone get rejected before the handling instead of deferred on every call
+     * @throws DroneException if any drone gets overfilled
+     */
+    @Test
+    void completeHandlingOversized() throws DroneException {
+        carrierDrones = new ArrayList<>();
+        for(int i = 0; i < 2; i++){
+            CarrierDrone cd = new CarrierDrone(i, new DistributionCenter(Continent.RU), null, 100, 1000);
+            cd.assignDrones(new DeliveryDrone(0, DELIVERY_DRONES_CAPACITY, 10, 100));
+            carrierDrones.add(cd);
+        }
+        orders = new ArrayList<>();
+        for(int i = 0; i < 20; i++){
+            Order order = new Order(i, new Address(Continent.EU, 1, "Demo Street " + i), OrderStatus.IN_DELIVERY, false);
+            order.setWeight(1);
+            order.setVolume(1);
+            orders.add(order);
+        }
+        Order heavy = orders.get(5);
+        heavy.setWeight(50);
+        Order large = orders.get(15);
+        large.setVolume(500);
+        List<Order> all = new ArrayList<>(orders);
+
+        assertEquals(List.of(heavy, large), DroneCoordination.rejectOversized(carrierDrones, orders));
+        Drone.setLogging(false);
+        assertEquals(0, DroneCoordination.completeHandling(carrierDrones, orders));
+        Drone.setLogging(true);
+        assertTrue(orders.isEmpty());
+        for(Order order : all){
+            if(order == heavy || order == large){
+                assertEquals(OrderStatus.UNDELIVERABLE, order.getStatus());
+            } else {
+                assertEquals(OrderStatus.DELIVERED, order.getStatus());
+            }
+        }
+
+        //without DeliveryDrones nothing can be judged, so nothing gets rejected
+        List<Order> waiting = new ArrayList<>(List.of(new Order(30, heavy.getAddress(), OrderStatus.IN_DELIVERY, false)));
+        waiting.get(0).setWeight(50);
+        assertTrue(DroneCoordination.rejectOversized(List.of(new CarrierDrone(5, new DistributionCenter(Continent.RU), null)), waiting).isEmpty());
+        assertEquals(1, waiting.size());
+    }
+
     /**
      * Generates a lot of Orders to test with
      */
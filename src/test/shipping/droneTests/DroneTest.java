@@ -7,6 +7,8 @@ import src.shipping.deliverymethod.drones.DeliveryDrone;
 import src.shipping.order.Address;
 import src.shipping.order.Order;
 import src.shipping.order.OrderStatus;
+import src.warehouse.item.Package;
+import src.warehouse.item.PackageDimensions;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -106,4 +108,51 @@ class DroneTest {
 
 
     }
-}
\ No newline at end of file
+
+    /**
+     * overloads the drone by weight and volume instead of the amount of orders
+     */
+    @Test
+    void loadInvalidWeightVolume() throws DroneException {
+        testDrone = new DeliveryDrone(2, 4, 10, 100);
+        Address demo = new Address(null, 1, "DEMO");
+        Package pac = new Package(1, "Package", "demo package", 4, 1, new PackageDimensions(5, 4, 2));
+        Order order = new Order(1, demo, OrderStatus.IN_DELIVERY, false);
+        order.addPackage(pac);
+        assertEquals(4, order.getWeight());
+        assertEquals(40, order.getVolume());
+        Order order2 = new Order(2, demo, OrderStatus.IN_DELIVERY, false);
+        order2.addPackage(pac);
+        Order order3 = new Order(3, demo, OrderStatus.IN_DELIVERY, false);
+        order3.addPackage(pac);
+
+        //valid
+        orders.add(order);
+        orders.add(order2);
+        testDrone.load(orders);
+        assertEquals(8, testDrone.getLoadWeight());
+
+        //invalid by weight
+        assertFalse(testDrone.fits(order3));
+        assertThrows(DroneException.class, ()->{
+            testDrone.load(order3);
+        });
+
+        //invalid by volume
+        Order order4 = new Order(4, demo, OrderStatus.IN_DELIVERY, false);
+        order4.setVolume(30);
+        assertThrows(DroneException.class, ()->{
+            testDrone.load(List.of(order4));
+        });
+        assertEquals(2, testDrone.getOrders().size());
+
+        //the totals follow the orders taken off the drone
+        testDrone.deliver();
+        assertEquals(0, testDrone.getLoadWeight());
+        assertEquals(0, testDrone.getLoadVolume());
+        testDrone.load(order3);
+        assertEquals(4, testDrone.getLoadWeight());
+        assertEquals(4, testDrone.unload().get(0).getWeight());
+        assertEquals(0, testDrone.getLoadWeight());
+    }
+}
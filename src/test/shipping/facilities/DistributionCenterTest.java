@@ -13,10 +13,15 @@ import src.shipping.order.Order;
 import src.shipping.order.OrderStatus;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static java.lang.Thread.sleep;
 import static org.junit.jupiter.api.Assertions.*;
@@ -56,7 +61,8 @@ class DistributionCenterTest {
         cd.assignDrones(new DeliveryDrone(3, 10));
         testCenter.addCarrierDrone(cd);
 
-
+        //keep the orders waiting long enough to see them pending
+        testCenter.setMaxBatchWait(500);
         testCenter.receiveOrders(generateOrders(size));
         assertEquals(size, testCenter.getPendingOrders().size());
 
@@ -83,6 +89,69 @@ class DistributionCenterTest {
 
     }
 
+    /**
+     * Test if a waiting DistributionCenter wakes up on new orders and on termination
+     */
+    @Test
+    void wakeUp() throws DroneException, InterruptedException {
+        AtomicReference<Thread> worker = new AtomicReference<>();
+        pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1, r -> {
+            Thread thread = new Thread(r);
+            worker.set(thread);
+            return thread;
+        });
+        pool.execute(testCenter);
+        CarrierDrone cd = new CarrierDrone(1, testCenter, null);
+        cd.assignDrones(new DeliveryDrone(2, 10));
+        testCenter.addCarrierDrone(cd);
+
+        //idle center, parked until orders arrive
+        long idle = System.currentTimeMillis();
+        while(worker.get().getState() != Thread.State.WAITING && System.currentTimeMillis() - idle < 1000){
+            Thread.onSpinWait();
+        }
+        assertEquals(Thread.State.WAITING, worker.get().getState());
+        List<Order> orders = generateOrders(1);
+        testCenter.receiveOrders(orders);
+        long start = System.currentTimeMillis();
+        while(orders.get(0).getStatus() != OrderStatus.DELIVERED && System.currentTimeMillis() - start < 1000){
+            Thread.onSpinWait();
+        }
+        assertEquals(OrderStatus.DELIVERED, orders.get(0).getStatus());
+
+        testCenter.terminate();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Test if an order too heavy for every drone gets rejected instead of retried forever
+     */
+    @Test
+    void rejectOversized() throws DroneException, InterruptedException {
+        pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(1);
+        pool.execute(testCenter);
+        CarrierDrone cd = new CarrierDrone(1, testCenter, null, 100, Double.POSITIVE_INFINITY);
+        cd.assignDrones(new DeliveryDrone(2, 10, 10, Double.POSITIVE_INFINITY));
+        testCenter.addCarrierDrone(cd);
+
+        List<Order> orders = generateOrders(5);
+        orders.get(2).setWeight(50);
+        testCenter.receiveOrders(orders);
+        long start = System.currentTimeMillis();
+        while(testCenter.getLoad() != 0 && System.currentTimeMillis() - start < 1000){
+            Thread.onSpinWait();
+        }
+        assertEquals(0, testCenter.getLoad());
+        assertEquals(1, testCenter.getRejected());
+        assertEquals(OrderStatus.UNDELIVERABLE, orders.get(2).getStatus());
+        assertEquals(OrderStatus.DELIVERED, orders.get(4).getStatus());
+
+        testCenter.terminate();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(1, TimeUnit.SECONDS));
+    }
+
     /**
      * Test if adding carrierDrones works as intended
      */
@@ -109,6 +178,77 @@ class DistributionCenterTest {
         assertEquals(size, testCenter.getPendingOrders().size());
     }
 
+    /**
+     * Test if orders received by many threads while the centers drain them are never lost
+     * pumps 1M orders across all continents
+     */
+    @Test
+    void pumpOrders() throws InterruptedException {
+        int total = 1_000_000;
+        int producers = 8;
+        int batch = 100;
+        Continent[] continents = Continent.values();
+        List<DistributionCenter> centers = new ArrayList<>();
+        for(Continent continent : continents){
+            centers.add(new DistributionCenter(continent));
+        }
+
+        //one consumer per center, draining while the orders come in
+        AtomicBoolean producing = new AtomicBoolean(true);
+        ExecutorService consumers = Executors.newFixedThreadPool(centers.size());
+        for(DistributionCenter center : centers){
+            consumers.execute(() -> {
+                while(true){
+                    //once the producers are done, one more drain gets everything
+                    boolean done = !producing.get();
+                    int drained = center.drainPendingOrders();
+                    if(done && drained == 0){
+                        break;
+                    }
+                }
+            });
+        }
+
+        ExecutorService producerPool = Executors.newFixedThreadPool(producers);
+        for(int p = 0; p < producers; p++){
+            int first = p * (total / producers);
+            producerPool.execute(() -> {
+                //orders get sent in batches per continent
+                List<List<Order>> batches = new ArrayList<>();
+                for(Continent ignored : continents){
+                    batches.add(new ArrayList<>(batch));
+                }
+                for(int i = first; i < first + total / producers; i++){
+                    Continent continent = continents[i % continents.length];
+                    List<Order> orders = batches.get(continent.ordinal());
+                    orders.add(new Order(i, new Address(continent, 1, "DEMO"), OrderStatus.IN_DELIVERY, false));
+                    if(orders.size() == batch){
+                        centers.get(continent.ordinal()).receiveOrders(orders);
+                        batches.set(continent.ordinal(), new ArrayList<>(batch));
+                    }
+                }
+                for(int c = 0; c < continents.length; c++){
+                    centers.get(c).receiveOrders(batches.get(c));
+                }
+            });
+        }
+        producerPool.shutdown();
+        assertTrue(producerPool.awaitTermination(60, TimeUnit.SECONDS));
+        producing.set(false);
+        consumers.shutdown();
+        assertTrue(consumers.awaitTermination(60, TimeUnit.SECONDS));
+
+        //every order arrived exactly once at the center of its continent
+        Set<Integer> ids = new HashSet<>();
+        for(DistributionCenter center : centers){
+            for(Order order : center.getPendingOrders()){
+                assertEquals(center.getLocation(), order.getAddress().getRegion());
+                assertTrue(ids.add(order.getOID()));
+            }
+        }
+        assertEquals(total, ids.size());
+    }
+
     private List<Order> generateOrders(int size){
         Address demo = new Address(null, 1, "DEMO");
         List<Order> orders = new ArrayList<>();
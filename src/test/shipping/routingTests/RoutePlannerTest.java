@@ -0,0 +1,105 @@
+package test.shipping.routingTests;
+
+import org.junit.jupiter.api.Test;
+import src.shipping.deliverymethod.drones.DeliveryDrone;
+import src.shipping.deliverymethod.routing.DistanceModel;
+import src.shipping.deliverymethod.routing.GridDistanceModel;
+import src.shipping.deliverymethod.routing.NearestNeighbourPlanner;
+import src.shipping.deliverymethod.routing.RoutePlanner;
+import src.shipping.deliverymethod.routing.TwoOptPlanner;
+import src.shipping.order.Address;
+import src.shipping.order.Continent;
+import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutePlannerTest {
+
+    DistanceModel model = new GridDistanceModel();
+
+    /**
+     * Generates orders in random areas
+     * @param amount the amount of orders
+     * @param seed the seed of the random areas
+     * @return the orders generated
+     */
+    private List<Order> generateOrders(int amount, long seed){
+        Random random = new Random(seed);
+        List<Order> orders = new ArrayList<>();
+        for(int i = 0; i < amount; i++){
+            orders.add(new Order(i, new Address(Continent.EU, random.nextInt(100), "Demo Street " + i), OrderStatus.IN_DELIVERY, false));
+        }
+        return orders;
+    }
+
+    private double length(List<Order> route){
+        List<Address> stops = new ArrayList<>();
+        for(Order order : route){
+            stops.add(order.getAddress());
+        }
+        return model.routeLength(stops);
+    }
+
+    /**
+     * Test the grid distances of the area codes
+     */
+    @Test
+    void gridDistance() {
+        Address a = new Address(Continent.EU, 0, "A");
+        Address b = new Address(Continent.EU, 34, "B");
+        Address c = new Address(Continent.AS, 34, "C");
+        assertEquals(5, model.distance(a, b), 1e-9);
+        assertEquals(5, model.distance(b, a), 1e-9);
+        assertEquals(5, model.distance(null, b), 1e-9);
+        assertEquals(GridDistanceModel.CONTINENT_DISTANCE, model.distance(b, c), 1e-9);
+        assertEquals(10, model.routeLength(List.of(b)), 1e-9);
+    }
+
+    /**
+     * Test if the planners keep all orders and 2-opt never makes the nearest neighbour route longer
+     */
+    @Test
+    void plan() {
+        RoutePlanner nearest = new NearestNeighbourPlanner(model);
+        RoutePlanner twoOpt = new TwoOptPlanner(nearest, model);
+        for(int stops = 10; stops <= 100; stops += 10){
+            List<Order> orders = generateOrders(stops, stops);
+            List<Order> nearestRoute = nearest.plan(orders);
+            List<Order> twoOptRoute = twoOpt.plan(orders);
+
+            assertEquals(new HashSet<>(orders), new HashSet<>(nearestRoute));
+            assertEquals(new HashSet<>(orders), new HashSet<>(twoOptRoute));
+            assertEquals(stops, twoOptRoute.size());
+            assertTrue(length(nearestRoute) <= length(orders));
+            assertTrue(length(twoOptRoute) <= length(nearestRoute) + 1e-9);
+        }
+    }
+
+    /**
+     * Test if a DeliveryDrone delivers its orders along the planned route
+     */
+    @Test
+    void deliverPlanned() throws Exception {
+        DeliveryDrone dd = new DeliveryDrone(1, 10);
+        dd.setRoutePlanner(new TwoOptPlanner(new NearestNeighbourPlanner(model), model));
+        List<Order> orders = new ArrayList<>();
+        for(int area : new int[]{99, 1, 98, 2}){
+            orders.add(new Order(area, new Address(Continent.EU, area, "Demo Street"), OrderStatus.IN_DELIVERY, false));
+        }
+        dd.load(orders);
+        dd.deliver();
+
+        for(Order order : orders){
+            assertEquals(OrderStatus.DELIVERED, order.getStatus());
+        }
+        assertEquals(4, dd.getTrips());
+        assertTrue(dd.getOrders().isEmpty());
+        assertTrue(dd.isDocking());
+    }
+}
@@ -0,0 +1,151 @@
+package test.shipping.simulationTests;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import src.exceptions.DroneException;
+import src.shipping.deliverymethod.drones.CarrierDrone;
+import src.shipping.deliverymethod.drones.DeliveryDrone;
+import src.shipping.deliverymethod.drones.Drone;
+import src.shipping.deliverymethod.routing.GridDistanceModel;
+import src.shipping.deliverymethod.simulation.FleetSimulation;
+import src.shipping.deliverymethod.simulation.SimulationReport;
+import src.shipping.ditributionCenter.DistributionCenter;
+import src.shipping.order.Address;
+import src.shipping.order.Continent;
+import src.shipping.order.Order;
+import src.shipping.order.OrderStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FleetSimulationTest {
+
+    static DistributionCenter base;
+
+    @BeforeAll
+    static void setUp() {
+        Drone.setLogging(false);
+        base = new DistributionCenter(Continent.EU);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        Drone.setLogging(true);
+        base.terminate();
+    }
+
+    /**
+     * Generates CarrierDrones with their DeliveryDrones
+     * @return the CarrierDrones generated
+     */
+    private List<CarrierDrone> generateFleet(int carrierDrones, int deliveryDrones, int capacity) throws DroneException {
+        List<CarrierDrone> fleet = new ArrayList<>();
+        for(int i = 0; i < carrierDrones; i++){
+            CarrierDrone cd = new CarrierDrone(i, base, null);
+            for(int j = 0; j < deliveryDrones; j++){
+                cd.assignDrones(new DeliveryDrone(j, capacity));
+            }
+            fleet.add(cd);
+        }
+        return fleet;
+    }
+
+    /**
+     * A single order takes exactly the flight and dock times of the drones on the virtual clock
+     */
+    @Test
+    void singleOrder() throws DroneException {
+        FleetSimulation simulation = new FleetSimulation(generateFleet(1, 1, 5), new GridDistanceModel(), 2);
+        simulation.setCarrierFlightTime(0.25);
+        simulation.setDockTime(0.1);
+        simulation.setRechargeTime(0.5);
+        simulation.setDropTime(0);
+
+        //area 1 is one grid unit away from the dock, there and back at speed 2 takes an hour
+        Order order = new Order(1, new Address(Continent.EU, 1, "Demo Street"), OrderStatus.IN_DELIVERY, false);
+        SimulationReport report = simulation.run(List.of(order), new double[]{0});
+
+        assertEquals(OrderStatus.DELIVERED, order.getStatus());
+        assertEquals(1, report.getDelivered());
+        assertEquals(0, report.getDeferred());
+        assertEquals(0, report.getMeanQueueingDelay(), 1e-9);
+        assertEquals(1.25, report.getMeanDeliveryTime(), 1e-9);
+        //the CarrierDrone is back at 2.1 h, the dispatching stops at the next interval
+        assertEquals(2.1, report.getHours(), FleetSimulation.DEFAULT_DISPATCH_INTERVAL + 1e-9);
+        assertEquals(2.1 / report.getHours(), report.getCarrierUtilisation(), 1e-9);
+    }
+
+    /**
+     * All orders get delivered, a larger fleet is faster
+     */
+    @Test
+    void fleetSize() throws DroneException {
+        List<Order> orders = new ArrayList<>();
+        double[] arrivals = new double[2000];
+        for(int i = 0; i < arrivals.length; i++){
+            orders.add(new Order(i, new Address(Continent.EU, i % 100, "Demo Street " + i), OrderStatus.IN_DELIVERY, false));
+            arrivals[i] = i / 1000.0;
+        }
+
+        SimulationReport small = new FleetSimulation(generateFleet(2, 2, 10), new GridDistanceModel(), 60).run(orders, arrivals);
+        for(Order order : orders){
+            assertEquals(OrderStatus.DELIVERED, order.getStatus());
+            order.setStatus(OrderStatus.IN_DELIVERY);
+        }
+        SimulationReport large = new FleetSimulation(generateFleet(8, 4, 10), new GridDistanceModel(), 60).run(orders, arrivals);
+
+        assertEquals(orders.size(), small.getDelivered());
+        assertEquals(orders.size(), large.getDelivered());
+        assertTrue(large.getHours() < small.getHours());
+        assertTrue(large.getMeanQueueingDelay() < small.getMeanQueueingDelay());
+        assertTrue(large.getThroughput() > small.getThroughput());
+        assertTrue(small.getDeliveryUtilisation() > 0 && small.getDeliveryUtilisation() <= 1);
+        assertTrue(small.getCarrierUtilisation() > 0 && small.getCarrierUtilisation() <= 1);
+    }
+
+    /**
+     * An order too heavy for every DeliveryDrone gets rejected and the CarrierDrones keep delivering the rest
+     */
+    @Test
+    void oversizedOrder() throws DroneException {
+        List<CarrierDrone> fleet = new ArrayList<>();
+        for(int i = 0; i < 5; i++){
+            CarrierDrone cd = new CarrierDrone(i, base, null, 100, Double.POSITIVE_INFINITY);
+            for(int j = 0; j < 2; j++){
+                cd.assignDrones(new DeliveryDrone(j, 10, 10, Double.POSITIVE_INFINITY));
+            }
+            fleet.add(cd);
+        }
+        List<Order> orders = new ArrayList<>();
+        double[] arrivals = new double[500];
+        for(int i = 0; i < arrivals.length; i++){
+            Order order = new Order(i, new Address(Continent.EU, i % 100, "Demo Street " + i), OrderStatus.IN_DELIVERY, false);
+            order.setWeight(i == 250 ? 50 : 1);
+            orders.add(order);
+            arrivals[i] = i / 500.0;
+        }
+
+        SimulationReport report = new FleetSimulation(fleet, new GridDistanceModel(), 60).run(orders, arrivals);
+        assertEquals(499, report.getDelivered());
+        assertEquals(1, report.getRejected());
+        assertEquals(0, report.getDeferred());
+        assertEquals(OrderStatus.UNDELIVERABLE, orders.get(250).getStatus());
+    }
+
+    /**
+     * Without DeliveryDrones the orders are deferred and the simulation still ends
+     */
+    @Test
+    void withoutDeliveryDrones() throws DroneException {
+        List<Order> orders = new ArrayList<>();
+        for(int i = 0; i < 10; i++){
+            orders.add(new Order(i, new Address(Continent.EU, 1, "Demo Street " + i), OrderStatus.IN_DELIVERY, false));
+        }
+        SimulationReport report = new FleetSimulation(generateFleet(2, 0, 10), new GridDistanceModel(), 60).run(orders, new double[10]);
+        assertEquals(0, report.getDelivered());
+        assertEquals(10, report.getDeferred());
+    }
+}
@@ -13,6 +13,8 @@ import src.warehouse.storageArea.GeneralArea;
 import src.warehouse.storageArea.IngredientArea;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -306,4 +308,225 @@ class InventoryManagerTest {
 
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Test if requests are resolved by name over all tables
+     */
+    @Test
+    void request() throws StorageAreaException {
+        int capacity = 100;
+        int remove = 30;
+        DemoDB db = DemoDB.getInstance();
+        Package testPackage = new Package(2, "PAck", "description", 0.1, 0.2, new PackageDimensions(1,2,3));
+        db.add(testPackage);
+        testManager.addArea(new GeneralArea(testPackage, capacity));
+        testManager.addToStorage(testPackage, capacity);
+
+        //request from the package table
+        testManager.request("PAck", remove);
+        assertEquals(capacity-remove, db.getPackageTable().getAmount(2));
+        assertEquals(capacity-remove, testManager.getGeneralAreas().get(0).getStock());
+
+        //request more than available
+        assertThrows(StorageAreaException.class, ()->{
+            testManager.request("PAck", capacity);
+        });
+        assertEquals(capacity-remove, db.getPackageTable().getAmount(2));
+    }
+
+    /**
+     * Test if areas designated on their first deposit are used for routing
+     */
+    @Test
+    void areaIndex() throws StorageAreaException {
+        DemoDB db = DemoDB.getInstance();
+        Package testPackage = new Package(2, "PAck", "description", 0.1, 0.2, new PackageDimensions(1,2,3));
+        Package otherPackage = new Package(3, "Other", "description", 0.1, 0.2, new PackageDimensions(1,2,3));
+        db.add(testPackage);
+        db.add(otherPackage);
+        addAreas(2, 0);
+
+        //nothing is designated yet so nothing can be stored
+        testManager.addToStorage(testPackage, 5);
+        assertEquals(0, testManager.getGeneralAreas().get(0).getStock());
+
+        //designate area 1 by depositing directly, afterwards it receives the package
+        testManager.getGeneralAreas().get(1).deposit(testPackage);
+        testManager.addToStorage(testPackage, 5);
+        assertEquals(6, testManager.getGeneralAreas().get(1).getStock());
+        assertEquals(0, testManager.getGeneralAreas().get(0).getStock());
+
+        //once emptied the area can be re-designated to another item
+        testManager.removeFromStorage(testPackage, 6);
+        testManager.getGeneralAreas().get(1).deposit(otherPackage);
+        testManager.addToStorage(testPackage, 5);
+        testManager.addToStorage(otherPackage, 2);
+        assertEquals(3, testManager.getGeneralAreas().get(1).getStock());
+    }
+
+    /**
+     * Test if the running InventoryManager reorders as soon as an item drops below its threshold
+     */
+    @Test
+    void replenishOnEvent() throws StorageAreaException, InterruptedException {
+        int capacity = 20;
+        DemoDB db = DemoDB.getInstance();
+        Package testPackage = new Package(2, "PAck", "description", 0.1, 0.2, new PackageDimensions(1,2,3));
+        db.add(testPackage, capacity/2);
+        testManager.addArea(new GeneralArea(testPackage, capacity));
+
+        Thread runner = new Thread(testManager);
+        runner.start();
+
+        //the first sweep fills the area
+        waitForAmount(db, capacity);
+        assertEquals(capacity, db.getPackageTable().getAmount(2));
+
+        //dropping below the threshold triggers a reorder long before the next sweep
+        testManager.removeFromStorage(testPackage, capacity-1);
+        waitForAmount(db, capacity);
+        assertEquals(capacity, db.getPackageTable().getAmount(2));
+        assertEquals(capacity, testManager.getGeneralAreas().get(0).getStock());
+
+        testManager.terminate();
+        runner.join(1000);
+        assertFalse(runner.isAlive());
+    }
+
+    /**
+     * Waits up to a second for the package with ID 2 to reach the given amount
+     */
+    private void waitForAmount(DemoDB db, int amount) throws InterruptedException {
+        for(int i = 0; i < 100 && db.getPackageTable().getAmount(2) != amount; i++){
+            Thread.sleep(10);
+        }
+    }
+
+    /**
+     * Test if the free capacity follows deposits, removals and capacity changes
+     */
+    @Test
+    void freeCapacity() throws StorageAreaException {
+        DemoDB db = DemoDB.getInstance();
+        Package testPackage = new Package(2, "PAck", "description", 0.1, 0.2, new PackageDimensions(1,2,3));
+        db.add(testPackage);
+        GeneralArea area1 = new GeneralArea(testPackage, 10);
+        GeneralArea area2 = new GeneralArea(20);
+        testManager.addArea(area1);
+        testManager.addArea(area2);
+        assertEquals(10, testManager.getFreeCapacity(testPackage));
+
+        //designating area2 adds its capacity
+        area2.deposit(testPackage);
+        assertEquals(29, testManager.getFreeCapacity(testPackage));
+
+        testManager.addToStorage(testPackage, 15);
+        assertEquals(14, testManager.getFreeCapacity(testPackage));
+        testManager.removeFromStorage(testPackage, 5);
+        assertEquals(19, testManager.getFreeCapacity(testPackage));
+
+        area1.setCapacity(5);
+        assertEquals(14, testManager.getFreeCapacity(testPackage));
+
+        //removing an emptied area removes its capacity
+        testManager.removeFromStorage(testPackage, 11);
+        assertTrue(testManager.removeArea(0));
+        assertEquals(20, testManager.getFreeCapacity(testPackage));
+    }
+
+    /**
+     * Test if ingredients are taken in order of their expiry date over all areas
+     */
+    @Test
+    void fefoRemoval() throws StorageAreaException {
+        DemoDB db = DemoDB.getInstance();
+        Ingredient early = new Ingredient(1,"INg", "description", 0.1, 0.2,
+                LocalDate.now().plusDays(1), LocalDate.now(), "PL1");
+        Ingredient middle = new Ingredient(1,"INg", "description", 0.1, 0.2,
+                LocalDate.now().plusDays(2), LocalDate.now(), "PL2");
+        Ingredient late = new Ingredient(1,"INg", "description", 0.1, 0.2,
+                LocalDate.now().plusDays(3), LocalDate.now(), "PL3");
+        db.add(early);
+        IngredientArea area1 = new IngredientArea(early, 100);
+        IngredientArea area2 = new IngredientArea(early, 100);
+        testManager.addArea(area1);
+        testManager.addArea(area2);
+
+        //area1: early + late, area2: middle
+        area1.deposit(early, 10);
+        area1.deposit(late, 10);
+        area2.deposit(middle, 10);
+
+        //takes all early ones from area1, then the middle ones from area2, then late ones from area1
+        testManager.removeFromStorage(early, 15);
+        assertEquals(10, area1.getStock());
+        assertEquals(5, area2.getStock());
+        assertEquals(LocalDate.now().plusDays(2), area2.peakAtFirst());
+
+        testManager.removeFromStorage(early, 10);
+        assertEquals(5, area1.getStock());
+        assertEquals(0, area2.getStock());
+        assertEquals(LocalDate.now().plusDays(3), area1.peakAtFirst());
+    }
+
+    /**
+     * Test if the daily check removes expired and spoiled products over all areas
+     */
+    @Test
+    void dalyCheck() throws StorageAreaException {
+        DemoDB db = DemoDB.getInstance();
+        Ingredient expired = new Ingredient(1,"INg", "description", 0.1, 0.2,
+                LocalDate.now(), LocalDate.now().minusDays(7), "PL1");
+        Ingredient good = new Ingredient(1,"INg", "description", 0.1, 0.2,
+                LocalDate.now().plusDays(3), LocalDate.now(), "PL2");
+        Ingredient spoiled = new Ingredient(1,"INg", "description", 0.1, 0.2,
+                LocalDate.now().plusDays(3), LocalDate.now(), "PL3");
+        db.add(good, 100);
+        IngredientArea area1 = new IngredientArea(good, 100);
+        IngredientArea area2 = new IngredientArea(good, 100);
+        IngredientArea area3 = new IngredientArea(good, 100);
+        testManager.addArea(area1);
+        testManager.addArea(area2);
+        testManager.addArea(area3);
+
+        area1.deposit(expired, 10);
+        area1.deposit(good, 10);
+        area2.deposit(good, 10);
+        area3.deposit(spoiled, 10);
+        area3.flagSpoiled(spoiled);
+
+        testManager.dalyCheck();
+        assertEquals(10, area1.getStock());
+        assertEquals(10, area2.getStock());
+        assertEquals(0, area3.getStock());
+        assertEquals(80, db.getIngredientTable().getThreshold(1));
+    }
+
+    /**
+     * Test the daily check over many areas, the removed amounts get summed up over all areas
+     */
+    @Test
+    void parallelDalyCheck() throws StorageAreaException {
+        DemoDB db = DemoDB.getInstance();
+        Ingredient expired = new Ingredient(1,"INg", "description", 0.1, 0.2,
+                LocalDate.now().minusDays(1), LocalDate.now().minusDays(7), "PL1");
+        Ingredient good = new Ingredient(1,"INg", "description", 0.1, 0.2,
+                LocalDate.now().plusDays(3), LocalDate.now(), "PL2");
+        db.add(good, 10000);
+        List<IngredientArea> areas = new ArrayList<>();
+        for(int i = 0; i < 1000; i++){
+            IngredientArea area = new IngredientArea(good, 10);
+            testManager.addArea(area);
+            area.deposit(expired, 5);
+            area.deposit(good, 5);
+            areas.add(area);
+        }
+
+        assertEquals(5000, testManager.dalyCheck());
+        for(IngredientArea area : areas){
+            assertEquals(5, area.getStock());
+        }
+        assertEquals(5000, testManager.getFreeCapacity(good));
+        assertEquals(5000, db.getIngredientTable().getThreshold(1));
+    }
+}
@@ -86,6 +86,52 @@ class GeneralAreaTest {
 
     }
 
+    /**
+     * Tests if depositing and taking multiple items at once works as intended
+     */
+    @Test
+    void bulkDepositTake() throws StorageAreaException {
+        GeneralArea bulkArea = new GeneralArea(10000);
+        Package p1 = testPackage(1);
+
+        //deposit into empty
+        bulkArea.deposit(p1, 10000);
+        assertEquals(10000, bulkArea.getStock());
+
+        //deposit over max: nothing gets added
+        assertThrows(StorageAreaException.class, () -> {
+            bulkArea.deposit(p1, 1);
+        });
+        assertEquals(10000, bulkArea.getStock());
+
+        //take more than stored: nothing gets taken
+        assertThrows(StorageAreaException.class, () -> {
+            bulkArea.take(10001);
+        });
+        assertEquals(10000, bulkArea.getStock());
+
+        //take everything
+        bulkArea.take(10000);
+        assertEquals(0, bulkArea.getStock());
+        assertTrue(bulkArea.removable());
+    }
+
+    /**
+     * Tests if a bounded take stops at the stock instead of failing
+     */
+    @Test
+    void takeUpTo() throws StorageAreaException {
+        Package p1 = testPackage(1);
+        testArea.deposit(p1, testCapacity);
+
+        assertEquals(1, testArea.takeUpTo(1));
+        assertEquals(testCapacity - 1, testArea.getStock());
+        assertEquals(testCapacity - 1, testArea.takeUpTo(5));
+        assertEquals(0, testArea.takeUpTo(5));
+        assertEquals(0, testArea.getStock());
+        assertTrue(testArea.removable());
+    }
+
     /**
      * Thest if the postRemoveCheck behaves correctly
      * @throws StorageAreaException
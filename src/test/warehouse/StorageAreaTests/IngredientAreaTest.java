@@ -83,6 +83,84 @@ class IngredientAreaTest {
         }
     }
 
+    /**
+     * Test if batches flagged as spoiled get removed by the daily check
+     */
+    @Test
+    void flagSpoiled() throws StorageAreaException {
+        Ingredient good = testIngredient(0, 2);
+        Ingredient spoiled = new Ingredient(0,"ID..", "description...", 0.1, 0.2,
+                LocalDate.now().plusDays(3), LocalDate.now(), "PL_spoiled");
+        testArea.deposit(good, 4);
+        testArea.deposit(spoiled, 4);
+        assertFalse(testArea.hasSpoiled());
+
+        //flag the spoiled lot
+        assertTrue(testArea.flagSpoiled(spoiled));
+        assertTrue(testArea.hasSpoiled());
+        assertTrue(spoiled.isGood());
+        assertFalse(testArea.flagSpoiled(testIngredient(0, 5)));
+
+        //new units of the lot don't end up in the spoiled batch
+        testArea.deposit(new Ingredient(0,"ID..", "description...", 0.1, 0.2,
+                LocalDate.now().plusDays(3), LocalDate.now(), "PL_spoiled"), 1);
+
+        assertEquals(4, testArea.dalyCheck());
+        assertFalse(testArea.hasSpoiled());
+        assertEquals(5, testArea.getStock());
+    }
+
+    /**
+     * Test if all batches of a lot get flagged, not only the one still receiving deposits
+     */
+    @Test
+    void flagSpoiledClosedBatch() throws StorageAreaException {
+        Ingredient first = testIngredient(0, 2);
+        testArea.deposit(first, 3);
+        //spoiling the deposited unit only marks the Ingredient, the area keeps its batch
+        //but further units of the lot go into a new batch
+        first.spoil();
+        testArea.deposit(testIngredient(0, 2), 2);
+        assertEquals(2, testArea.getBatches());
+        assertFalse(testArea.hasSpoiled());
+
+        //reported with a unit of the closed batch
+        assertTrue(testArea.flagSpoiled(first));
+        assertEquals(0, testArea.takeUntil(null, 5));
+        assertEquals(5, testArea.dalyCheck());
+        assertEquals(0, testArea.getStock());
+    }
+
+    /**
+     * Test if batches flagged as spoiled never get taken, even if they expire first
+     */
+    @Test
+    void takeSkipsSpoiled() throws StorageAreaException {
+        Ingredient spoiled = new Ingredient(0,"ID..", "description...", 0.1, 0.2,
+                LocalDate.now().plusDays(1), LocalDate.now(), "PL_spoiled");
+        Ingredient good = testIngredient(0, 2);
+        testArea.deposit(spoiled, 4);
+        testArea.deposit(good, 4);
+        assertTrue(testArea.flagSpoiled(spoiled));
+
+        //units already spoiled when deposited are flagged right away
+        Ingredient bad = testIngredient(0, 1);
+        bad.spoil();
+        testArea.deposit(bad, 2);
+        assertEquals(10, testArea.getStock());
+        assertEquals(good.getExpiryDate(), testArea.peakAtFirst());
+
+        //only the good lot gets taken
+        assertThrows(StorageAreaException.class, () -> testArea.take(5));
+        assertEquals(3, testArea.takeUntil(null, 3));
+        assertSame(good, testArea.take());
+        assertEquals(0, testArea.takeUntil(null, 10));
+        assertNull(testArea.peakAtFirst());
+
+        assertEquals(6, testArea.dalyCheck());
+        assertEquals(0, testArea.getStock());
+    }
+
     /**
      * Test if when depositing the item that expires first is in the first position
      */
@@ -149,6 +227,59 @@ class IngredientAreaTest {
         assertTrue(testArea.removable());
     }
 
+    /**
+     * Test if depositing and taking multiple items at once works as intended
+     */
+    @Test
+    void bulkDepositTake() throws StorageAreaException {
+        //deposit two batches with different expiry dates
+        testArea.deposit(testIngredient(0, 2), testCapacity/2);
+        testArea.deposit(testIngredient(0, 1), testCapacity/2);
+        assertEquals(testCapacity, testArea.getStock());
+
+        //deposit over max: nothing gets added
+        assertThrows(StorageAreaException.class, ()->{
+            testArea.deposit(testIngredient(0, 1), 1);
+        });
+        assertEquals(testCapacity, testArea.getStock());
+
+        //take the earlier expiring batch
+        testArea.take(testCapacity/2);
+        assertEquals(testCapacity/2, testArea.getStock());
+        assertEquals(LocalDate.now().plusDays(2), testArea.peakAtFirst());
+
+        //take more than stored: nothing gets taken
+        assertThrows(StorageAreaException.class, ()->{
+            testArea.take(testCapacity);
+        });
+        assertEquals(testCapacity/2, testArea.getStock());
+    }
+
+    /**
+     * Test if units of the same lot are stored as a single batch
+     */
+    @Test
+    void batches() throws StorageAreaException {
+        int units = 100000;
+        IngredientArea bigArea = new IngredientArea(units*2);
+
+        //units of one lot end up in one batch
+        for(int i = 0; i < units/2; i++){
+            bigArea.deposit(testIngredient(0, 1));
+        }
+        bigArea.deposit(testIngredient(0, 1), units/2);
+        assertEquals(units, bigArea.getStock());
+        assertEquals(1, bigArea.getBatches());
+
+        //another lot opens a new batch that gets taken first
+        bigArea.deposit(testIngredient(0, 0), units);
+        assertEquals(2, bigArea.getBatches());
+        bigArea.take(units+1);
+        assertEquals(1, bigArea.getBatches());
+        assertEquals(units-1, bigArea.getStock());
+        assertEquals(LocalDate.now().plusDays(1), bigArea.peakAtFirst());
+    }
+
     /**
      * Test if we can get the expiry date of the first item in the list
      * @throws StorageAreaException